@@ -7,7 +7,7 @@ public class CounterAppRunner {
         JMiniAppRunner
             .forApp(CounterApp.class)
             .withState(CounterState.class)
-            .withAdapters(new CounterJSONAdapter())
+            .withAdapterDiscovery()  // Finds CounterJSONAdapter through @JMiniAdapter
             //.withResourcesPath("test-data/")  // Custom import/export path
             .named("Counter")
             .run(args);
@@ -1,6 +1,7 @@
 package com.jminiapp.examples.counter;
 
 import com.jminiapp.core.adapters.JSONAdapter;
+import com.jminiapp.core.api.JMiniAdapter;
 
 /**
  * JSON adapter for CounterState objects.
@@ -9,6 +10,9 @@ import com.jminiapp.core.adapters.JSONAdapter;
  * to/from JSON files. It leverages the framework's JSONAdapter interface which
  * provides default implementations for serialization using Gson.</p>
  *
+ * <p>{@code @JMiniAdapter} lists it for discovery, so the runner finds it
+ * without registering it by hand.</p>
+ *
  * <p>Example JSON format:</p>
  * <pre>
  * [
@@ -18,6 +22,7 @@ import com.jminiapp.core.adapters.JSONAdapter;
  * ]
  * </pre>
  */
+@JMiniAdapter("json")
 public class CounterJSONAdapter implements JSONAdapter<CounterState> {
 
     @Override
@@ -0,0 +1,97 @@
+package com.jminiapp.benchmarks;
+
+import com.jminiapp.benchmarks.data.Row;
+import com.jminiapp.benchmarks.data.RowAdapters;
+import com.jminiapp.benchmarks.data.SyntheticData;
+import com.jminiapp.core.api.JMiniFormatAdapter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads and writes of each format, in memory so the disk does not blur
+ * the comparison.
+ *
+ * <p>Compares the binary format with JSON and CSV, and the streaming
+ * {@code readEach()} with reading into a list; run with {@code -prof gc}
+ * to see the allocation per operation of each.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AdapterBenchmark {
+
+    @Param({"1000", "100000"})
+    public int rows;
+
+    /** Characters of free text per row. */
+    @Param({"16", "256"})
+    public int width;
+
+    @Param({"csv", "json", "bin", "json.gz"})
+    public String format;
+
+    private JMiniFormatAdapter<Row> adapter;
+    private List<Row> data;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() {
+        adapter = RowAdapters.forFormat(format);
+        data = SyntheticData.rows(rows, width);
+        encoded = SyntheticData.encode(data, adapter);
+    }
+
+    @Benchmark
+    public long write() throws IOException {
+        CountingOutputStream output = new CountingOutputStream();
+        adapter.write(data, output);
+        return output.count;
+    }
+
+    @Benchmark
+    public List<Row> read() throws IOException {
+        return adapter.read(new ByteArrayInputStream(encoded));
+    }
+
+    @Benchmark
+    public void readEach(Blackhole blackhole) throws IOException {
+        adapter.readEach(new ByteArrayInputStream(encoded), blackhole::consume);
+    }
+
+    /**
+     * Discards what is written, keeping only its size.
+     */
+    private static final class CountingOutputStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
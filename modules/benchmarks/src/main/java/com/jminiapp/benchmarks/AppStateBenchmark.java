@@ -0,0 +1,81 @@
+package com.jminiapp.benchmarks;
+
+import com.jminiapp.benchmarks.data.Row;
+import com.jminiapp.benchmarks.data.SyntheticData;
+import com.jminiapp.core.api.StateConcurrency;
+import com.jminiapp.core.engine.AppState;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-threaded cost of the data list in each concurrency mode, including
+ * change tracking.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AppStateBenchmark {
+
+    @Param({"1000", "100000"})
+    public int rows;
+
+    @Param({"NONE", "COPY_ON_WRITE", "LOCKED", "SINGLE_WRITER"})
+    public StateConcurrency concurrency;
+
+    private List<Row> data;
+    private AppState state;
+    private List<Row> list;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        data = SyntheticData.rows(rows, 32);
+        state = new AppState(Row.class, concurrency);
+        state.setData(data);
+        list = state.getData();
+    }
+
+    @Benchmark
+    public Row get() {
+        next = next + 1 < rows ? next + 1 : 0;
+        return list.get(next);
+    }
+
+    @Benchmark
+    public Row set() {
+        next = next + 1 < rows ? next + 1 : 0;
+        return list.set(next, data.get(next));
+    }
+
+    @Benchmark
+    public long iterate() {
+        long sum = 0;
+        for (Row row : list) {
+            sum += row.getQuantity();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int setData() {
+        state.setData(data);
+        return state.size();
+    }
+}
@@ -0,0 +1,70 @@
+package com.jminiapp.benchmarks;
+
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatFactory;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Runs benchmarks once per thread count and writes all results to one file.
+ *
+ * <p>JMH runs a benchmark with a single thread count per run; this runner
+ * repeats the run for each count, so contention can be compared from one
+ * thread to many. Group benchmarks get one writer and the rest readers.</p>
+ *
+ * <p><b>Usage:</b></p>
+ * <pre>
+ * java -cp benchmarks.jar com.jminiapp.benchmarks.BenchmarkRunner \
+ *     [--threads 1,2,4,8,16,32,64] [--out contention.json] [JMH options...]
+ * </pre>
+ *
+ * <p>Without a benchmark pattern among the JMH options, runs
+ * {@link ContentionBenchmark}.</p>
+ */
+public class BenchmarkRunner {
+
+    private static final int[] DEFAULT_THREADS = {1, 2, 4, 8, 16, 32, 64};
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        int[] threads = DEFAULT_THREADS;
+        String out = "contention.json";
+        List<String> jmhArgs = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if ("--threads".equals(args[i]) && i + 1 < args.length) {
+                threads = Arrays.stream(args[++i].split(",")).mapToInt(t -> Integer.parseInt(t.trim())).toArray();
+            } else if ("--out".equals(args[i]) && i + 1 < args.length) {
+                out = args[++i];
+            } else {
+                jmhArgs.add(args[i]);
+            }
+        }
+
+        CommandLineOptions options = new CommandLineOptions(jmhArgs.toArray(new String[0]));
+        List<RunResult> results = new ArrayList<>();
+        for (int count : threads) {
+            if (count < 1) {
+                throw new IllegalArgumentException("Thread counts must be positive: " + count);
+            }
+            ChainedOptionsBuilder builder = new OptionsBuilder()
+                    .parent(options)
+                    .threads(count)
+                    .threadGroups(Math.max(1, count - 1), 1);
+            if (options.getIncludes().isEmpty()) {
+                builder.include(ContentionBenchmark.class.getSimpleName());
+            }
+            results.addAll(new Runner(builder.build()).run());
+        }
+
+        ResultFormatFactory.getInstance(ResultFormatType.JSON, out).writeOut(results);
+        System.out.println("Results written to " + out);
+    }
+}
@@ -0,0 +1,86 @@
+package com.jminiapp.benchmarks;
+
+import com.jminiapp.benchmarks.data.Row;
+import com.jminiapp.benchmarks.data.SyntheticData;
+import com.jminiapp.core.api.StateConcurrency;
+import com.jminiapp.core.engine.AppState;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the thread-safe concurrency modes with several threads
+ * sharing the data.
+ *
+ * <p>{@code mixed} has every thread read nine times for each write; the
+ * {@code readers} group has readers next to a single writer, the case
+ * {@link StateConcurrency#SINGLE_WRITER} is made for. Set the number of
+ * threads with {@code -t} and {@code -tg}, or let {@link BenchmarkRunner}
+ * sweep them. {@link StateConcurrency#NONE} is left out as it is not safe
+ * to share.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContentionBenchmark {
+
+    @Param({"1000", "100000"})
+    public int rows;
+
+    @Param({"COPY_ON_WRITE", "LOCKED", "SINGLE_WRITER"})
+    public StateConcurrency concurrency;
+
+    private List<Row> data;
+    private List<Row> list;
+
+    @Setup
+    public void setUp() {
+        data = SyntheticData.rows(rows, 32);
+        AppState state = new AppState(Row.class, concurrency);
+        state.setData(data);
+        list = state.getData();
+    }
+
+    @Benchmark
+    public Row mixed() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int index = random.nextInt(rows);
+        if (random.nextInt(10) == 0) {
+            return list.set(index, data.get(index));
+        }
+        return list.get(index);
+    }
+
+    @Benchmark
+    @Group("readers")
+    @GroupThreads(3)
+    public Row read() {
+        return list.get(ThreadLocalRandom.current().nextInt(rows));
+    }
+
+    @Benchmark
+    @Group("readers")
+    @GroupThreads(1)
+    public Row write() {
+        int index = ThreadLocalRandom.current().nextInt(rows);
+        return list.set(index, data.get(index));
+    }
+}
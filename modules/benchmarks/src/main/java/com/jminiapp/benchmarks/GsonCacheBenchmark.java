@@ -0,0 +1,66 @@
+package com.jminiapp.benchmarks;
+
+import com.jminiapp.benchmarks.data.Row;
+import com.jminiapp.benchmarks.data.RowAdapters;
+import com.jminiapp.benchmarks.data.SyntheticData;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records per second converted by a JSON adapter with its cached Gson
+ * instance, against building the instance for each record as adapters
+ * did before it was cached.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GsonCacheBenchmark {
+
+    @Param({"16", "256"})
+    public int width;
+
+    private final RowAdapters.Json adapter = new RowAdapters.Json();
+    private Row row;
+    private String json;
+
+    @Setup
+    public void setUp() {
+        row = SyntheticData.rows(1, width).get(0);
+        json = adapter.toJSON(row);
+    }
+
+    @Benchmark
+    public String toJsonCached() {
+        return adapter.toJSON(row);
+    }
+
+    @Benchmark
+    public String toJsonUncached() {
+        return adapter.configureGson().toJson(row);
+    }
+
+    @Benchmark
+    public Row fromJsonCached() {
+        return adapter.fromJSON(json);
+    }
+
+    @Benchmark
+    public Row fromJsonUncached() {
+        return adapter.configureGson().fromJson(json, Row.class);
+    }
+}
@@ -0,0 +1,79 @@
+package com.jminiapp.benchmarks;
+
+import com.jminiapp.benchmarks.data.Row;
+import com.jminiapp.benchmarks.data.RowAdapters;
+import com.jminiapp.benchmarks.data.SyntheticData;
+import com.jminiapp.core.api.ImportMode;
+import com.jminiapp.core.api.ImportStrategies;
+import com.jminiapp.core.engine.internal.JMiniAppDefaultContext;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Importing a file with each {@link ImportMode}, through a context as an app does.
+ *
+ * <p>Run with {@code -prof com.jminiapp.benchmarks.PeakHeapProfiler} to
+ * compare how much memory each mode holds as the file grows.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class ImportModeBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int rows;
+
+    @Param({"csv", "json", "bin"})
+    public String format;
+
+    @Param({"BUFFERED", "STREAMING", "MAPPED", "PARALLEL"})
+    public ImportMode mode;
+
+    private Path directory;
+    private String file;
+    private JMiniAppDefaultContext context;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("jminiapp-bench");
+        file = SyntheticData.writeFile(directory.resolve("rows." + format),
+                SyntheticData.rows(rows, 64), RowAdapters.forFormat(format)).toString();
+        context = new JMiniAppDefaultContext("bench", Row.class, directory.toString());
+        context.registerAdapter(RowAdapters.forFormat(format));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public int importFile() throws IOException {
+        context.importData(file, format, ImportStrategies.REPLACE, mode);
+        return context.getData().size();
+    }
+}
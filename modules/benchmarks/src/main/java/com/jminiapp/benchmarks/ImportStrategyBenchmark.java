@@ -0,0 +1,100 @@
+package com.jminiapp.benchmarks;
+
+import com.jminiapp.benchmarks.data.Row;
+import com.jminiapp.benchmarks.data.SyntheticData;
+import com.jminiapp.core.api.ImportStrategies;
+import com.jminiapp.core.api.ImportStrategy;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Merge cost of each import strategy as the data grows.
+ *
+ * <p>The imported rows overlap half of the current rows, so the strategies
+ * that compare rows find both matches and new rows. Each strategy should
+ * scale linearly with the row count. {@code MERGE_BY_ID} reads IDs through
+ * a function; {@code MERGE_BY_ID_REFLECTIVE} is the default
+ * {@code mergeById()}, which finds the ID accessor by reflection and calls
+ * it through a cached method handle.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ImportStrategyBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int rows;
+
+    @Param({"REPLACE", "APPEND", "SKIP_EXISTING", "MERGE_BY_ID", "MERGE_BY_ID_REFLECTIVE"})
+    public String strategy;
+
+    private ImportStrategy importStrategy;
+    private List<Row> current;
+    private List<Row> imported;
+    private List<Row> target;
+
+    @Setup
+    public void setUp() {
+        switch (strategy) {
+            case "REPLACE":
+                importStrategy = ImportStrategies.REPLACE;
+                break;
+            case "APPEND":
+                importStrategy = ImportStrategies.APPEND;
+                break;
+            case "SKIP_EXISTING":
+                importStrategy = ImportStrategies.SKIP_EXISTING;
+                break;
+            case "MERGE_BY_ID":
+                importStrategy = ImportStrategies.<Row>mergeById(Row::getId);
+                break;
+            case "MERGE_BY_ID_REFLECTIVE":
+                importStrategy = ImportStrategies.mergeById();
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown strategy: " + strategy);
+        }
+        current = SyntheticData.rows(rows, 32);
+        imported = SyntheticData.rows(rows / 2, rows, 32, SyntheticData.DEFAULT_SEED + 1);
+    }
+
+    // Copying the current rows is a fraction of the merge at these sizes
+    @Setup(Level.Invocation)
+    public void copyCurrent() {
+        target = new ArrayList<>(current);
+    }
+
+    @Benchmark
+    public List<Row> merge() {
+        importStrategy.merge(target, imported);
+        return target;
+    }
+
+    @Benchmark
+    public List<Row> mergeStreaming() {
+        ImportStrategy.Session<Row> session = importStrategy.begin(target);
+        for (Row row : imported) {
+            session.add(row);
+        }
+        session.finish();
+        return target;
+    }
+}
@@ -0,0 +1,114 @@
+package com.jminiapp.benchmarks;
+
+import com.jminiapp.benchmarks.data.Row;
+import com.jminiapp.benchmarks.data.SyntheticData;
+import com.jminiapp.core.api.IndexType;
+import com.jminiapp.core.api.StateConcurrency;
+import com.jminiapp.core.engine.AppState;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Queries against the equivalent streams over the data.
+ *
+ * <p>Each pair returns the same results: a lookup by key, a range, a page
+ * in index order, and the first results by a comparator.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueryBenchmark {
+
+    private static final Comparator<Row> BY_PRICE = Comparator.comparingDouble(Row::getPrice);
+
+    @Param({"10000", "1000000"})
+    public int rows;
+
+    @Param({"NONE", "LOCKED"})
+    public StateConcurrency concurrency;
+
+    private AppState state;
+    private List<Row> list;
+    private long id;
+    private long from;
+
+    @Setup
+    public void setUp() {
+        state = new AppState(Row.class, concurrency);
+        state.setData(SyntheticData.rows(rows, 32));
+        state.<Row>createIndex("id", IndexType.UNIQUE, Row::getId);
+        state.<Row>createIndex("created", IndexType.SORTED, row -> row.getCreatedAt().getTime());
+        list = state.getData();
+        id = rows / 3;
+        from = list.get(rows / 2).getCreatedAt().getTime();
+        // Build the indexes outside the measurement
+        state.findBy("id", id);
+        state.findRange("created", from, from);
+    }
+
+    @Benchmark
+    public Row lookupQuery() {
+        return state.<Row>query().where("id", id).first();
+    }
+
+    @Benchmark
+    public Row lookupStream() {
+        return list.stream().filter(row -> row.getId() == id).findFirst().orElse(null);
+    }
+
+    @Benchmark
+    public List<Row> rangeQuery() {
+        return state.<Row>query().whereBetween("created", from, from + 3_600_000).list();
+    }
+
+    @Benchmark
+    public List<Row> rangeStream() {
+        return list.stream()
+                .filter(row -> row.getCreatedAt().getTime() >= from && row.getCreatedAt().getTime() < from + 3_600_000)
+                .sorted(Comparator.comparingLong(row -> row.getCreatedAt().getTime()))
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<Row> pageQuery() {
+        return state.<Row>query().where(Row::isActive).orderBy("created").offset(100).limit(20).list();
+    }
+
+    @Benchmark
+    public List<Row> pageStream() {
+        return list.stream()
+                .filter(Row::isActive)
+                .sorted(Comparator.comparingLong(row -> row.getCreatedAt().getTime()))
+                .skip(100)
+                .limit(20)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<Row> topQuery() {
+        return state.<Row>query().orderBy(BY_PRICE).limit(20).list();
+    }
+
+    @Benchmark
+    public List<Row> topStream() {
+        return list.stream().sorted(BY_PRICE).limit(20).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,81 @@
+package com.jminiapp.benchmarks.data;
+
+import java.util.Date;
+
+/**
+ * Synthetic record used by the benchmarks.
+ *
+ * <p>Seven typed columns of the kinds apps usually store, plus a free-text
+ * {@code notes} column whose length sets the width of the record.</p>
+ */
+public class Row {
+
+    /** Coarse grouping with few distinct values. */
+    public enum Category { HOME, WORK, ERRANDS, HEALTH, FINANCE, TRAVEL }
+
+    private long id;
+    private String name;
+    private Category category;
+    private int quantity;
+    private double price;
+    private boolean active;
+    private Date createdAt;
+    private String notes;
+
+    public Row() {
+    }
+
+    public Row(long id, String name, Category category, int quantity, double price,
+               boolean active, Date createdAt, String notes) {
+        this.id = id;
+        this.name = name;
+        this.category = category;
+        this.quantity = quantity;
+        this.price = price;
+        this.active = active;
+        this.createdAt = createdAt;
+        this.notes = notes;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Category getCategory() {
+        return category;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public double getPrice() {
+        return price;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    public String getNotes() {
+        return notes;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Row && ((Row) o).id == id;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(id);
+    }
+}
@@ -0,0 +1,97 @@
+package com.jminiapp.benchmarks.data;
+
+import com.jminiapp.core.adapters.BinaryAdapter;
+import com.jminiapp.core.adapters.CSVAdapter;
+import com.jminiapp.core.adapters.CompressedAdapter;
+import com.jminiapp.core.adapters.JSONAdapter;
+import com.jminiapp.core.api.JMiniFormatAdapter;
+
+import java.util.Date;
+
+/**
+ * Format adapters for {@link Row}, written the way an app would write them.
+ */
+public final class RowAdapters {
+
+    private RowAdapters() {
+    }
+
+    /**
+     * Get an adapter by format name.
+     *
+     * @param format "csv", "json" or "bin", optionally with ".gz"
+     * @return a new adapter
+     * @throws IllegalArgumentException if the format is unknown
+     */
+    public static JMiniFormatAdapter<Row> forFormat(String format) {
+        String base = CompressedAdapter.baseFormatOf(format);
+        if (base != null) {
+            return new CompressedAdapter<>(forFormat(base));
+        }
+        switch (format) {
+            case "csv":
+                return new Csv();
+            case "json":
+                return new Json();
+            case "bin":
+                return new Binary();
+            default:
+                throw new IllegalArgumentException("Unknown format: " + format);
+        }
+    }
+
+    /** JSON adapter for rows. */
+    public static final class Json implements JSONAdapter<Row> {
+        @Override
+        public Class<Row> getstateClass() {
+            return Row.class;
+        }
+    }
+
+    /** Binary adapter for rows. */
+    public static final class Binary implements BinaryAdapter<Row> {
+        @Override
+        public Class<Row> getstateClass() {
+            return Row.class;
+        }
+    }
+
+    /** CSV adapter for rows. */
+    public static final class Csv implements CSVAdapter<Row> {
+        private static final String[] HEADER = {
+            "id", "name", "category", "quantity", "price", "active", "createdAt", "notes"
+        };
+
+        @Override
+        public String[] getHeader() {
+            return HEADER;
+        }
+
+        @Override
+        public String[] toCSV(Row row) {
+            return new String[] {
+                Long.toString(row.getId()),
+                row.getName(),
+                row.getCategory().name(),
+                Integer.toString(row.getQuantity()),
+                Double.toString(row.getPrice()),
+                Boolean.toString(row.isActive()),
+                Long.toString(row.getCreatedAt().getTime()),
+                row.getNotes()
+            };
+        }
+
+        @Override
+        public Row fromCSV(String[] fields) {
+            return new Row(
+                    Long.parseLong(fields[0]),
+                    fields[1],
+                    Row.Category.valueOf(fields[2]),
+                    Integer.parseInt(fields[3]),
+                    Double.parseDouble(fields[4]),
+                    Boolean.parseBoolean(fields[5]),
+                    new Date(Long.parseLong(fields[6])),
+                    fields[7]);
+        }
+    }
+}
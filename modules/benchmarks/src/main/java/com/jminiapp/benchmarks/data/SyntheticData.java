@@ -0,0 +1,142 @@
+package com.jminiapp.benchmarks.data;
+
+import com.jminiapp.core.api.JMiniFormatAdapter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic generator of benchmark data.
+ *
+ * <p>The same count, width and seed always produce the same rows, so runs
+ * on different builds measure the same input. Names come from a small
+ * vocabulary and repeat, as they do in real data; notes are random words.</p>
+ */
+public final class SyntheticData {
+
+    /** Seed used when none is given. */
+    public static final long DEFAULT_SEED = 42;
+
+    private static final String[] FIRST = {
+        "Buy", "Call", "Email", "Fix", "Plan", "Review", "Send", "Book", "Pay", "Clean"
+    };
+    private static final String[] SECOND = {
+        "groceries", "dentist", "report", "bike", "trip", "invoice", "garden", "car", "rent", "slides"
+    };
+    private static final String[] WORDS = {
+        "lorem", "ipsum", "dolor", "sit", "amet", "consectetur", "adipiscing", "elit", "sed", "do",
+        "eiusmod", "tempor", "incididunt", "ut", "labore", "et", "dolore", "magna", "aliqua", "enim"
+    };
+    private static final long START = 1_700_000_000_000L;
+
+    private SyntheticData() {
+    }
+
+    /**
+     * Generate rows with the default seed.
+     *
+     * @param count the number of rows
+     * @param width the number of characters of the notes column
+     * @return the rows, with ids 0 to count - 1
+     */
+    public static List<Row> rows(int count, int width) {
+        return rows(count, width, DEFAULT_SEED);
+    }
+
+    /**
+     * Generate rows.
+     *
+     * @param count the number of rows
+     * @param width the number of characters of the notes column
+     * @param seed the random seed
+     * @return the rows, with ids 0 to count - 1
+     */
+    public static List<Row> rows(int count, int width, long seed) {
+        return rows(0, count, width, seed);
+    }
+
+    /**
+     * Generate rows with consecutive ids from a starting id.
+     *
+     * @param firstId the id of the first row
+     * @param count the number of rows
+     * @param width the number of characters of the notes column
+     * @param seed the random seed
+     * @return the rows
+     */
+    public static List<Row> rows(long firstId, int count, int width, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        Row.Category[] categories = Row.Category.values();
+        List<Row> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rows.add(new Row(
+                    firstId + i,
+                    FIRST[random.nextInt(FIRST.length)] + " " + SECOND[random.nextInt(SECOND.length)],
+                    categories[random.nextInt(categories.length)],
+                    random.nextInt(1, 100),
+                    Math.round(random.nextDouble(1, 1000) * 100) / 100.0,
+                    random.nextBoolean(),
+                    new Date(START + random.nextLong(365L * 24 * 3600 * 1000)),
+                    notes(random, width)));
+        }
+        return rows;
+    }
+
+    /**
+     * Encode rows with an adapter.
+     *
+     * @param rows the rows
+     * @param adapter the adapter
+     * @return the encoded bytes
+     */
+    public static byte[] encode(List<Row> rows, JMiniFormatAdapter<Row> adapter) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        write(rows, adapter, output);
+        return output.toByteArray();
+    }
+
+    /**
+     * Write rows to a file with an adapter.
+     *
+     * @param file the file to create
+     * @param rows the rows
+     * @param adapter the adapter
+     * @return the file
+     */
+    public static Path writeFile(Path file, List<Row> rows, JMiniFormatAdapter<Row> adapter) {
+        try (OutputStream output = Files.newOutputStream(file)) {
+            write(rows, adapter, output);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return file;
+    }
+
+    private static void write(List<Row> rows, JMiniFormatAdapter<Row> adapter, OutputStream output) {
+        try {
+            adapter.write(rows, output);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String notes(SplittableRandom random, int width) {
+        StringBuilder notes = new StringBuilder(width + 16);
+        while (notes.length() < width) {
+            if (notes.length() > 0) {
+                notes.append(' ');
+            }
+            notes.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        notes.setLength(width);
+        return notes.toString();
+    }
+}
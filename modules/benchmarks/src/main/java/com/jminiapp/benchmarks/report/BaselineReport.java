@@ -0,0 +1,149 @@
+package com.jminiapp.benchmarks.report;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares two JMH result files and reports what got faster or slower.
+ *
+ * <p>Results are matched by benchmark, parameters and thread count. A change
+ * counts as a regression when the score got worse by more than the threshold
+ * and by more than the two scores' errors together; throughput is better
+ * when higher, the other modes when lower. Exits with status 1 if any
+ * benchmark regressed, so it can gate a build.</p>
+ *
+ * <p><b>Usage:</b></p>
+ * <pre>
+ * java -cp benchmarks.jar com.jminiapp.benchmarks.report.BaselineReport \
+ *     baseline.json current.json [--threshold 5]
+ * </pre>
+ */
+public class BaselineReport {
+
+    private static final double DEFAULT_THRESHOLD = 5.0;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BaselineReport <baseline.json> <current.json> [--threshold percent]");
+            System.exit(2);
+        }
+        double threshold = DEFAULT_THRESHOLD;
+        if (args.length >= 4 && "--threshold".equals(args[2])) {
+            threshold = Double.parseDouble(args[3]);
+        }
+
+        Map<String, Score> baseline = load(args[0]);
+        Map<String, Score> current = load(args[1]);
+
+        int regressions = 0;
+        System.out.printf("%-72s %18s %18s %9s%n", "Benchmark", "Baseline", "Current", "Change");
+        for (Map.Entry<String, Score> entry : current.entrySet()) {
+            Score now = entry.getValue();
+            Score before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("%-72s %18s %18s %9s%n", entry.getKey(), "-", now, "new");
+                continue;
+            }
+
+            double change = (now.value - before.value) / before.value * 100;
+            double worse = now.higherIsBetter() ? -change : change;
+            boolean significant = Math.abs(now.value - before.value) > now.error + before.error;
+            String verdict = "";
+            if (worse > threshold && significant) {
+                verdict = "  REGRESSION";
+                regressions++;
+            } else if (-worse > threshold && significant) {
+                verdict = "  improved";
+            }
+            System.out.printf("%-72s %18s %18s %+8.1f%%%s%n", entry.getKey(), before, now, change, verdict);
+        }
+        for (String key : baseline.keySet()) {
+            if (!current.containsKey(key)) {
+                System.out.printf("%-72s %18s %18s %9s%n", key, baseline.get(key), "-", "removed");
+            }
+        }
+
+        System.out.printf("%n%d regression(s) beyond %.1f%%%n", regressions, threshold);
+        if (regressions > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Read the primary scores of a JMH JSON result file.
+     *
+     * @param path the result file
+     * @return the scores by benchmark, parameters and thread count
+     * @throws IOException if the file cannot be read
+     */
+    static Map<String, Score> load(String path) throws IOException {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        try (Reader reader = Files.newBufferedReader(Paths.get(path), StandardCharsets.UTF_8)) {
+            for (JsonElement element : JsonParser.parseReader(reader).getAsJsonArray()) {
+                JsonObject result = element.getAsJsonObject();
+                JsonObject metric = result.getAsJsonObject("primaryMetric");
+                JsonElement error = metric.get("scoreError");
+                scores.put(keyOf(result), new Score(
+                        result.get("mode").getAsString(),
+                        metric.get("score").getAsDouble(),
+                        error != null && error.isJsonPrimitive() && !Double.isNaN(error.getAsDouble())
+                                ? error.getAsDouble() : 0,
+                        metric.get("scoreUnit").getAsString()));
+            }
+        }
+        return scores;
+    }
+
+    private static String keyOf(JsonObject result) {
+        String benchmark = result.get("benchmark").getAsString();
+        // Class and method name, without the package
+        int method = benchmark.lastIndexOf('.');
+        StringBuilder key = new StringBuilder(benchmark.substring(benchmark.lastIndexOf('.', method - 1) + 1));
+        if (result.has("params")) {
+            // Sorted so the key does not depend on the order JMH wrote them in
+            Map<String, String> params = new TreeMap<>();
+            for (Map.Entry<String, JsonElement> param : result.getAsJsonObject("params").entrySet()) {
+                params.put(param.getKey(), param.getValue().getAsString());
+            }
+            params.forEach((name, value) -> key.append(' ').append(name).append('=').append(value));
+        }
+        key.append(" t=").append(result.get("threads").getAsInt());
+        return key.toString();
+    }
+
+    /**
+     * The primary score of one benchmark.
+     */
+    static final class Score {
+        final String mode;
+        final double value;
+        final double error;
+        final String unit;
+
+        Score(String mode, double value, double error, String unit) {
+            this.mode = mode;
+            this.value = value;
+            this.error = error;
+            this.unit = unit;
+        }
+
+        boolean higherIsBetter() {
+            return "thrpt".equals(mode);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%.3f %s", value, unit);
+        }
+    }
+}
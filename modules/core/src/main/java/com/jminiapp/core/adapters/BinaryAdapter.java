@@ -0,0 +1,148 @@
+package com.jminiapp.core.adapters;
+
+import com.jminiapp.core.api.JMiniFormatAdapter;
+import com.jminiapp.core.api.ProbeResult;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Compact binary adapter interface with default implementations.
+ *
+ * <p>This interface extends JMiniFormatAdapter and stores objects in a
+ * length-prefixed binary format described by a schema in the file header.
+ * Integers are written as varints and repeated short strings are interned,
+ * so files are several times smaller than JSON and much faster to read and
+ * write. Use it when nobody needs to edit the files by hand.</p>
+ *
+ * <p>Implementers only need to provide:</p>
+ * <ul>
+ *   <li>getstateClass() - Return the class type of objects</li>
+ * </ul>
+ *
+ * <p>Like Gson, the adapter stores every non-static, non-transient field of
+ * the state class and its superclasses. Supported field types are the
+ * primitives and their wrappers, {@code String}, enums and
+ * {@code java.util.Date}; the class needs a no-argument constructor (it may
+ * be private). Fields are matched by name when reading, so files stay
+ * readable after fields are added, removed or reordered.</p>
+ *
+ * @param <T> the type of objects this adapter handles
+ */
+public interface BinaryAdapter<T> extends JMiniFormatAdapter<T> {
+
+    /**
+     * Get the model class type for this adapter.
+     *
+     * @return the class object for type T
+     */
+    Class<T> getstateClass();
+
+    /**
+     * Get the format name for the binary format.
+     *
+     * @return "bin"
+     */
+    @Override
+    default String getFormatName() {
+        return "bin";
+    }
+
+    /**
+     * Read binary data from an input stream.
+     *
+     * @param input the input stream containing binary data
+     * @return list of objects read from the stream
+     * @throws IOException if an I/O error occurs or the data is invalid
+     */
+    @Override
+    default List<T> read(InputStream input) throws IOException {
+        try (BinaryRecordReader reader = openReader(input)) {
+            List<T> result = new ArrayList<>(Math.min(reader.count(), 1 << 20));
+            while (reader.hasNext()) {
+                result.add(getstateClass().cast(reader.next()));
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Read binary data from an input stream one record at a time.
+     *
+     * @param input the input stream containing binary data
+     * @param action the action to perform for each object read
+     * @throws IOException if an I/O error occurs or the data is invalid
+     */
+    @Override
+    default void readEach(InputStream input, Consumer<? super T> action) throws IOException {
+        try (BinaryRecordReader reader = openReader(input)) {
+            while (reader.hasNext()) {
+                action.accept(getstateClass().cast(reader.next()));
+            }
+        }
+    }
+
+    /**
+     * Write objects in the binary format.
+     *
+     * @param data the list of objects to write
+     * @param output the output stream to write to
+     * @throws IOException if an I/O error occurs or the state class cannot be encoded
+     */
+    @Override
+    default void write(List<T> data, OutputStream output) throws IOException {
+        try (OutputStream out = output) {
+            BinaryRecordWriter writer = new BinaryRecordWriter(out, schema(), data.size());
+            for (T item : data) {
+                writer.write(item);
+            }
+            writer.flush();
+        }
+    }
+
+    /**
+     * Recognize the binary format by the magic number at the start of its header.
+     *
+     * @param head the first bytes of the file
+     * @return whether the bytes start with the binary format's magic number
+     */
+    @Override
+    default ProbeResult probe(byte[] head) {
+        if (head.length == 0) {
+            return ProbeResult.UNKNOWN;
+        }
+        int magic = BinaryRecordWriter.MAGIC;
+        for (int i = 0; i < 4; i++) {
+            if (i >= head.length || head[i] != (byte) (magic >>> (24 - 8 * i))) {
+                return ProbeResult.NO_MATCH;
+            }
+        }
+        return ProbeResult.MATCH;
+    }
+
+    /**
+     * Open a reader over binary data, checking its header.
+     */
+    private BinaryRecordReader openReader(InputStream input) throws IOException {
+        try {
+            return new BinaryRecordReader(input, schema());
+        } catch (IOException e) {
+            input.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Get the schema of the state class.
+     */
+    private BinarySchema schema() throws IOException {
+        try {
+            return BinarySchema.of(getstateClass());
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Cannot use " + getstateClass().getName() + " with the binary format: "
+                    + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,334 @@
+package com.jminiapp.core.adapters;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Decodes records written by {@link BinaryRecordWriter}.
+ *
+ * <p>The header's schema is matched against the reading class once; fields
+ * the class does not have (or has with another type) are decoded and
+ * dropped. Each record is read into a reusable buffer in one go, using its
+ * length prefix, and decoded from there without further bounds checks
+ * against the stream.</p>
+ */
+final class BinaryRecordReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final InputStream input;
+    private final BinarySchema schema;
+    private final int count;
+    private final int[] codes;
+    private final BinarySchema.Slot[] targets;
+    private final List<String> interned = new ArrayList<>();
+
+    private byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+    private int limit;
+
+    private int recordsRead;
+
+    /**
+     * Create a reader and read the file header.
+     *
+     * @param input the input stream
+     * @param schema the schema of the reading class
+     * @throws IOException if the header is missing or invalid
+     */
+    BinaryRecordReader(InputStream input, BinarySchema schema) throws IOException {
+        this.input = input;
+        this.schema = schema;
+
+        if (isEmpty()) {
+            // Empty document: no records, like an empty JSON file
+            count = 0;
+            codes = new int[0];
+            targets = new BinarySchema.Slot[0];
+            return;
+        }
+
+        require(4);
+        int magic = (buffer[position] & 0xFF) << 24 | (buffer[position + 1] & 0xFF) << 16
+                | (buffer[position + 2] & 0xFF) << 8 | (buffer[position + 3] & 0xFF);
+        position += 4;
+        if (magic != BinaryRecordWriter.MAGIC) {
+            throw new IOException("Invalid binary data: unknown file header");
+        }
+
+        count = (int) readStreamVarLong();
+        int fieldCount = (int) readStreamVarLong();
+        if (count < 0 || fieldCount < 0) {
+            throw new IOException("Invalid binary data: bad file header");
+        }
+        codes = new int[fieldCount];
+        targets = new BinarySchema.Slot[fieldCount];
+        for (int i = 0; i < fieldCount; i++) {
+            int nameLength = (int) readStreamVarLong();
+            require(nameLength + 1);
+            String name = new String(buffer, position, nameLength, StandardCharsets.UTF_8);
+            position += nameLength;
+            codes[i] = buffer[position++] & 0xFF;
+            targets[i] = schema.find(name, codes[i]);
+        }
+    }
+
+    /**
+     * Get the number of records in the file, as recorded in its header.
+     *
+     * @return the record count
+     */
+    int count() {
+        return count;
+    }
+
+    /**
+     * Check whether another record follows.
+     *
+     * @return true if {@link #next()} returns a record
+     */
+    boolean hasNext() {
+        return recordsRead < count;
+    }
+
+    /**
+     * Decode the next record.
+     *
+     * @return the record, which may be null
+     * @throws IOException if the data is truncated or invalid
+     */
+    Object next() throws IOException {
+        recordsRead++;
+        long prefix = readStreamVarLong();
+        if (prefix == 0) {
+            return null;
+        }
+        int length = (int) (prefix - 1);
+        require(length);
+        int end = position + length;
+
+        Object item;
+        try {
+            item = schema.newInstance();
+            for (int i = 0; i < codes.length; i++) {
+                BinarySchema.Slot target = targets[i];
+                readField(codes[i], target, target != null ? target.field : null, item);
+            }
+        } catch (ReflectiveOperationException e) {
+            throw new IOException("Cannot create " + schema.getType().getName() + ": " + e.getMessage(), e);
+        } catch (IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new IOException("Invalid binary data in record " + recordsRead, e);
+        }
+
+        if (position != end) {
+            throw new IOException("Invalid binary data: record " + recordsRead + " has the wrong length");
+        }
+        return item;
+    }
+
+    @Override
+    public void close() throws IOException {
+        input.close();
+    }
+
+    // --- Field decoding ---
+
+    /**
+     * Decode one value and store it in the field, if there is one.
+     */
+    private void readField(int code, BinarySchema.Slot slot, Field field, Object item)
+            throws IllegalAccessException {
+        if ((code & BinarySchema.NULLABLE) != 0) {
+            Object value = buffer[position++] == 0 ? null : readBoxed(code & ~BinarySchema.NULLABLE);
+            if (field != null) {
+                field.set(item, value);
+            }
+            return;
+        }
+
+        switch (code) {
+            case BinarySchema.BOOLEAN: {
+                boolean value = buffer[position++] != 0;
+                if (field != null) field.setBoolean(item, value);
+                break;
+            }
+            case BinarySchema.BYTE: {
+                byte value = buffer[position++];
+                if (field != null) field.setByte(item, value);
+                break;
+            }
+            case BinarySchema.SHORT: {
+                short value = (short) readZigZag();
+                if (field != null) field.setShort(item, value);
+                break;
+            }
+            case BinarySchema.CHAR: {
+                char value = (char) readVarLong();
+                if (field != null) field.setChar(item, value);
+                break;
+            }
+            case BinarySchema.INT: {
+                int value = (int) readZigZag();
+                if (field != null) field.setInt(item, value);
+                break;
+            }
+            case BinarySchema.LONG: {
+                long value = readZigZag();
+                if (field != null) field.setLong(item, value);
+                break;
+            }
+            case BinarySchema.FLOAT: {
+                float value = Float.intBitsToFloat((int) readFixedLE(4));
+                if (field != null) field.setFloat(item, value);
+                break;
+            }
+            case BinarySchema.DOUBLE: {
+                double value = Double.longBitsToDouble(readFixedLE(8));
+                if (field != null) field.setDouble(item, value);
+                break;
+            }
+            case BinarySchema.STRING: {
+                String value = readString();
+                if (field != null) field.set(item, value);
+                break;
+            }
+            case BinarySchema.ENUM: {
+                String name = readString();
+                if (field != null) field.set(item, name != null ? slot.enumConstant(name) : null);
+                break;
+            }
+            case BinarySchema.DATE: {
+                Date value = buffer[position++] == 0 ? null : new Date(readZigZag());
+                if (field != null) field.set(item, value);
+                break;
+            }
+            default:
+                throw new IllegalArgumentException("Unknown type code " + code);
+        }
+    }
+
+    private Object readBoxed(int code) {
+        switch (code) {
+            case BinarySchema.BOOLEAN: return buffer[position++] != 0;
+            case BinarySchema.BYTE: return buffer[position++];
+            case BinarySchema.SHORT: return (short) readZigZag();
+            case BinarySchema.CHAR: return (char) readVarLong();
+            case BinarySchema.INT: return (int) readZigZag();
+            case BinarySchema.LONG: return readZigZag();
+            case BinarySchema.FLOAT: return Float.intBitsToFloat((int) readFixedLE(4));
+            case BinarySchema.DOUBLE: return Double.longBitsToDouble(readFixedLE(8));
+            default:
+                throw new IllegalArgumentException("Unknown type code " + code);
+        }
+    }
+
+    private String readString() {
+        long tag = readVarLong();
+        if (tag == 0) {
+            return null;
+        }
+        tag--;
+        int kind = (int) (tag & 3);
+        int value = (int) (tag >>> 2);
+
+        if (kind == BinaryRecordWriter.STRING_REF) {
+            return interned.get(value);
+        }
+        String string = new String(buffer, position, value, StandardCharsets.UTF_8);
+        position += value;
+        if (kind == BinaryRecordWriter.STRING_INTERNED) {
+            interned.add(string);
+        }
+        return string;
+    }
+
+    // --- Primitive decoding from the record buffer ---
+
+    private long readZigZag() {
+        long value = readVarLong();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private long readVarLong() {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer[position++];
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+
+    private long readFixedLE(int bytes) {
+        long value = 0;
+        for (int i = 0; i < bytes; i++) {
+            value |= (long) (buffer[position++] & 0xFF) << (8 * i);
+        }
+        return value;
+    }
+
+    // --- Stream buffering ---
+
+    /**
+     * Read a varint straight from the stream (used outside records).
+     */
+    private long readStreamVarLong() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            require(1);
+            byte b = buffer[position++];
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IOException("Invalid binary data: malformed varint");
+    }
+
+    private boolean isEmpty() throws IOException {
+        int read;
+        do {
+            read = input.read(buffer, 0, buffer.length);
+        } while (read == 0);
+        limit = Math.max(read, 0);
+        return read < 0;
+    }
+
+    /**
+     * Make sure the next {@code length} bytes are in the buffer.
+     */
+    private void require(int length) throws IOException {
+        if (limit - position >= length) {
+            return;
+        }
+        if (length < 0) {
+            throw new IOException("Invalid binary data: negative length");
+        }
+
+        int remaining = limit - position;
+        if (length > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(length, buffer.length * 2));
+        }
+        System.arraycopy(buffer, position, buffer, 0, remaining);
+        position = 0;
+        limit = remaining;
+
+        while (limit < length) {
+            int read = input.read(buffer, limit, buffer.length - limit);
+            if (read < 0) {
+                throw new EOFException("Binary data is truncated");
+            }
+            limit += read;
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package com.jminiapp.core.adapters;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Encodes records in the {@link BinaryAdapter} format.
+ *
+ * <p>Layout:</p>
+ * <pre>
+ * header:  magic:int32  count:varint  fieldCount:varint  (name:string  type:byte)*
+ * record:  0 (null element) | length+1:varint  field values in schema order
+ * </pre>
+ *
+ * <p>Integers are zigzag varints, floating point values are little endian,
+ * strings are a varint tag followed by UTF-8 bytes. Strings up to
+ * {@value #MAX_INTERNED_LENGTH} characters are interned: the first occurrence
+ * is written in full and later ones as a reference to it, so repeated values
+ * (categories, statuses, enum names) cost one or two bytes each.</p>
+ *
+ * <p>Each record is encoded into a reusable buffer, so its length is known
+ * before it is copied to the output buffer, which is flushed in large blocks.</p>
+ */
+final class BinaryRecordWriter {
+
+    static final int MAGIC = 0x4A4D4201; // "JMB" version 1
+
+    // String tags: 0 is null, otherwise (value << 2 | kind) + 1
+    static final int STRING_REF = 0;
+    static final int STRING_INTERNED = 1;
+    static final int STRING_LITERAL = 2;
+
+    static final int MAX_INTERNED_LENGTH = 64;
+    static final int MAX_INTERNED_STRINGS = 1 << 16;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final OutputStream output;
+    private final BinarySchema.Slot[] slots;
+    private final Map<String, Integer> interned = new HashMap<>();
+
+    private byte[] record = new byte[256];
+    private int recordLength;
+
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int bufferLength;
+
+    /**
+     * Create a writer and write the file header.
+     *
+     * @param output the output stream
+     * @param schema the schema of the records
+     * @param count the number of records that will be written
+     * @throws IOException if the header cannot be written
+     */
+    BinaryRecordWriter(OutputStream output, BinarySchema schema, int count) throws IOException {
+        this.output = output;
+        this.slots = schema.getSlots().toArray(new BinarySchema.Slot[0]);
+
+        writeInt32(MAGIC);
+        writeVarLong(count);
+        writeVarLong(slots.length);
+        for (BinarySchema.Slot slot : slots) {
+            byte[] name = slot.name.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(name.length);
+            writeBytes(name, 0, name.length);
+            writeByte(slot.code);
+        }
+        moveRecordToBuffer();
+    }
+
+    /**
+     * Encode one record.
+     *
+     * @param item the element to write (may be null)
+     * @throws IOException if the output fails
+     */
+    void write(Object item) throws IOException {
+        if (item == null) {
+            bufferVarLong(0);
+            return;
+        }
+
+        try {
+            for (BinarySchema.Slot slot : slots) {
+                writeField(slot.code, slot.field, item);
+            }
+        } catch (IllegalAccessException e) {
+            throw new IOException("Cannot read fields of " + item.getClass().getName(), e);
+        }
+
+        bufferVarLong(recordLength + 1L);
+        moveRecordToBuffer();
+    }
+
+    /**
+     * Write out everything buffered.
+     *
+     * @throws IOException if the output fails
+     */
+    void flush() throws IOException {
+        flushBuffer();
+        output.flush();
+    }
+
+    private void writeField(int code, Field field, Object item) throws IllegalAccessException {
+        if ((code & BinarySchema.NULLABLE) != 0) {
+            Object value = field.get(item);
+            if (value == null) {
+                writeByte(0);
+                return;
+            }
+            writeByte(1);
+            writeBoxed(code & ~BinarySchema.NULLABLE, value);
+            return;
+        }
+
+        switch (code) {
+            case BinarySchema.BOOLEAN: writeByte(field.getBoolean(item) ? 1 : 0); break;
+            case BinarySchema.BYTE: writeByte(field.getByte(item)); break;
+            case BinarySchema.SHORT: writeZigZag(field.getShort(item)); break;
+            case BinarySchema.CHAR: writeVarLong(field.getChar(item)); break;
+            case BinarySchema.INT: writeZigZag(field.getInt(item)); break;
+            case BinarySchema.LONG: writeZigZag(field.getLong(item)); break;
+            case BinarySchema.FLOAT: writeInt32LE(Float.floatToRawIntBits(field.getFloat(item))); break;
+            case BinarySchema.DOUBLE: writeInt64LE(Double.doubleToRawLongBits(field.getDouble(item))); break;
+            case BinarySchema.STRING: writeString((String) field.get(item)); break;
+            case BinarySchema.ENUM: {
+                Enum<?> value = (Enum<?>) field.get(item);
+                writeString(value != null ? value.name() : null);
+                break;
+            }
+            case BinarySchema.DATE: {
+                Date value = (Date) field.get(item);
+                if (value == null) {
+                    writeByte(0);
+                } else {
+                    writeByte(1);
+                    writeZigZag(value.getTime());
+                }
+                break;
+            }
+            default:
+                throw new IllegalStateException("Unknown type code " + code);
+        }
+    }
+
+    private void writeBoxed(int code, Object value) {
+        switch (code) {
+            case BinarySchema.BOOLEAN: writeByte((Boolean) value ? 1 : 0); break;
+            case BinarySchema.BYTE: writeByte((Byte) value); break;
+            case BinarySchema.SHORT: writeZigZag((Short) value); break;
+            case BinarySchema.CHAR: writeVarLong((Character) value); break;
+            case BinarySchema.INT: writeZigZag((Integer) value); break;
+            case BinarySchema.LONG: writeZigZag((Long) value); break;
+            case BinarySchema.FLOAT: writeInt32LE(Float.floatToRawIntBits((Float) value)); break;
+            case BinarySchema.DOUBLE: writeInt64LE(Double.doubleToRawLongBits((Double) value)); break;
+            default:
+                throw new IllegalStateException("Unknown type code " + code);
+        }
+    }
+
+    private void writeString(String value) {
+        if (value == null) {
+            writeVarLong(0);
+            return;
+        }
+
+        boolean internable = value.length() <= MAX_INTERNED_LENGTH;
+        if (internable) {
+            Integer id = interned.get(value);
+            if (id != null) {
+                writeVarLong(((long) id << 2 | STRING_REF) + 1);
+                return;
+            }
+            internable = interned.size() < MAX_INTERNED_STRINGS;
+            if (internable) {
+                interned.put(value, interned.size());
+            }
+        }
+
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(((long) bytes.length << 2 | (internable ? STRING_INTERNED : STRING_LITERAL)) + 1);
+        writeBytes(bytes, 0, bytes.length);
+    }
+
+    // --- Primitive encoding into the record buffer ---
+
+    private void writeZigZag(long value) {
+        writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    private void writeVarLong(long value) {
+        ensureCapacity(10);
+        byte[] buf = record;
+        int pos = recordLength;
+        while ((value & ~0x7FL) != 0) {
+            buf[pos++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buf[pos++] = (byte) value;
+        recordLength = pos;
+    }
+
+    private void writeByte(int value) {
+        ensureCapacity(1);
+        record[recordLength++] = (byte) value;
+    }
+
+    private void writeInt32(int value) {
+        ensureCapacity(4);
+        record[recordLength++] = (byte) (value >>> 24);
+        record[recordLength++] = (byte) (value >>> 16);
+        record[recordLength++] = (byte) (value >>> 8);
+        record[recordLength++] = (byte) value;
+    }
+
+    private void writeInt32LE(int value) {
+        ensureCapacity(4);
+        for (int i = 0; i < 4; i++) {
+            record[recordLength++] = (byte) (value >>> (8 * i));
+        }
+    }
+
+    private void writeInt64LE(long value) {
+        ensureCapacity(8);
+        for (int i = 0; i < 8; i++) {
+            record[recordLength++] = (byte) (value >>> (8 * i));
+        }
+    }
+
+    private void writeBytes(byte[] bytes, int offset, int length) {
+        ensureCapacity(length);
+        System.arraycopy(bytes, offset, record, recordLength, length);
+        recordLength += length;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (recordLength + extra > record.length) {
+            record = Arrays.copyOf(record, Math.max(record.length * 2, recordLength + extra));
+        }
+    }
+
+    // --- Output buffering ---
+
+    private void moveRecordToBuffer() throws IOException {
+        if (bufferLength + recordLength > buffer.length) {
+            flushBuffer();
+        }
+        if (recordLength > buffer.length) {
+            output.write(record, 0, recordLength);
+        } else {
+            System.arraycopy(record, 0, buffer, bufferLength, recordLength);
+            bufferLength += recordLength;
+        }
+        recordLength = 0;
+    }
+
+    private void bufferVarLong(long value) throws IOException {
+        if (bufferLength + 10 > buffer.length) {
+            flushBuffer();
+        }
+        while ((value & ~0x7FL) != 0) {
+            buffer[bufferLength++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[bufferLength++] = (byte) value;
+    }
+
+    private void flushBuffer() throws IOException {
+        if (bufferLength > 0) {
+            output.write(buffer, 0, bufferLength);
+            bufferLength = 0;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.jminiapp.core.adapters;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Field layout of a state class as written by {@link BinaryAdapter}.
+ *
+ * <p>The schema lists every non-static, non-transient field of the class and
+ * its superclasses (superclass fields first, in declaration order), the same
+ * fields Gson would serialize. Files start with the schema of the class that
+ * wrote them, and readers match written fields to their own by name and type,
+ * so fields can be added, removed or reordered between versions.</p>
+ *
+ * <p>Schemas are built once per class and cached.</p>
+ */
+final class BinarySchema {
+
+    // Field type codes, as stored in file headers
+    static final int BOOLEAN = 1;
+    static final int BYTE = 2;
+    static final int SHORT = 3;
+    static final int CHAR = 4;
+    static final int INT = 5;
+    static final int LONG = 6;
+    static final int FLOAT = 7;
+    static final int DOUBLE = 8;
+    static final int STRING = 9;
+    static final int ENUM = 10;
+    static final int DATE = 11;
+
+    /** Set on primitive codes for boxed fields, whose values carry a null marker. */
+    static final int NULLABLE = 0x40;
+
+    private static final ClassValue<BinarySchema> SCHEMAS = new ClassValue<>() {
+        @Override
+        protected BinarySchema computeValue(Class<?> type) {
+            return new BinarySchema(type);
+        }
+    };
+
+    private final Class<?> type;
+    private final List<Slot> slots;
+    private final Map<String, Slot> slotsByName;
+    private final Constructor<?> constructor;
+
+    private BinarySchema(Class<?> type) {
+        this.type = type;
+        this.slots = new ArrayList<>();
+        this.slotsByName = new HashMap<>();
+
+        List<Class<?>> hierarchy = new ArrayList<>();
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+            hierarchy.add(0, c);
+        }
+        for (Class<?> c : hierarchy) {
+            for (Field field : c.getDeclaredFields()) {
+                int modifiers = field.getModifiers();
+                if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || field.isSynthetic()) {
+                    continue;
+                }
+                int code = typeCodeOf(field.getType());
+                if (code == 0) {
+                    throw new IllegalArgumentException("Field " + c.getSimpleName() + "." + field.getName()
+                            + " has unsupported type " + field.getType().getName());
+                }
+                field.setAccessible(true);
+                // A shadowing subclass field wins, as it does in Gson
+                Slot slot = new Slot(field.getName(), code, field);
+                Slot shadowed = slotsByName.put(slot.name, slot);
+                if (shadowed != null) {
+                    slots.remove(shadowed);
+                }
+                slots.add(slot);
+            }
+        }
+
+        try {
+            constructor = type.getDeclaredConstructor();
+            constructor.setAccessible(true);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException(type.getName() + " needs a no-argument constructor");
+        }
+    }
+
+    /**
+     * Get the schema of a class.
+     *
+     * @param type the state class
+     * @return the cached schema
+     * @throws IllegalArgumentException if the class has a field of an
+     *         unsupported type or no no-argument constructor
+     */
+    static BinarySchema of(Class<?> type) {
+        return SCHEMAS.get(type);
+    }
+
+    Class<?> getType() {
+        return type;
+    }
+
+    List<Slot> getSlots() {
+        return slots;
+    }
+
+    /**
+     * Find the field a written field maps to.
+     *
+     * @param name the written field name
+     * @param code the written type code
+     * @return the matching field, or null if there is none or its type differs
+     */
+    Slot find(String name, int code) {
+        Slot slot = slotsByName.get(name);
+        return slot != null && slot.code == code ? slot : null;
+    }
+
+    Object newInstance() throws ReflectiveOperationException {
+        return constructor.newInstance();
+    }
+
+    private static int typeCodeOf(Class<?> type) {
+        if (type == boolean.class) return BOOLEAN;
+        if (type == byte.class) return BYTE;
+        if (type == short.class) return SHORT;
+        if (type == char.class) return CHAR;
+        if (type == int.class) return INT;
+        if (type == long.class) return LONG;
+        if (type == float.class) return FLOAT;
+        if (type == double.class) return DOUBLE;
+        if (type == Boolean.class) return BOOLEAN | NULLABLE;
+        if (type == Byte.class) return BYTE | NULLABLE;
+        if (type == Short.class) return SHORT | NULLABLE;
+        if (type == Character.class) return CHAR | NULLABLE;
+        if (type == Integer.class) return INT | NULLABLE;
+        if (type == Long.class) return LONG | NULLABLE;
+        if (type == Float.class) return FLOAT | NULLABLE;
+        if (type == Double.class) return DOUBLE | NULLABLE;
+        if (type == String.class) return STRING;
+        if (type.isEnum()) return ENUM;
+        if (type == Date.class) return DATE;
+        return 0;
+    }
+
+    /**
+     * One field of the schema.
+     */
+    static final class Slot {
+        final String name;
+        final int code;
+        final Field field;
+        private volatile Map<String, Object> enumConstants;
+
+        private Slot(String name, int code, Field field) {
+            this.name = name;
+            this.code = code;
+            this.field = field;
+        }
+
+        /**
+         * Look up an enum constant by name; unknown names map to null, as in Gson.
+         */
+        Object enumConstant(String constantName) {
+            Map<String, Object> constants = enumConstants;
+            if (constants == null) {
+                constants = new HashMap<>();
+                for (Object constant : field.getType().getEnumConstants()) {
+                    constants.put(((Enum<?>) constant).name(), constant);
+                }
+                enumConstants = constants;
+            }
+            return constants.get(constantName);
+        }
+    }
+}
@@ -1,10 +1,17 @@
 package com.jminiapp.core.adapters;
 
 import com.jminiapp.core.api.JMiniFormatAdapter;
+import com.jminiapp.core.api.ProbeResult;
 
 import java.io.*;
+import java.nio.file.Files;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
 
 /**
  * CSV-specific adapter interface with default implementations.
@@ -77,8 +84,8 @@ public interface CSVAdapter<T> extends JMiniFormatAdapter<T> {
     /**
      * Read CSV data from an input stream.
      *
-     * <p>Default implementation reads line by line, splits by delimiter,
-     * and calls fromCSV() for each row. Skips the header row if present.</p>
+     * <p>Default implementation collects the rows produced by
+     * {@link #readEach(InputStream, Consumer)} into a list.</p>
      *
      * @param input the input stream containing CSV data
      * @return list of objects parsed from CSV
@@ -87,6 +94,74 @@ public interface CSVAdapter<T> extends JMiniFormatAdapter<T> {
     @Override
     default List<T> read(InputStream input) throws IOException {
         List<T> items = new ArrayList<>();
+        readEach(input, items::add);
+        return items;
+    }
+
+    /**
+     * Read CSV data from an input stream one row at a time.
+     *
+     * <p>Default implementation parses records with {@link CSVReader}
+     * (quoted fields, escaped quotes and line breaks inside quotes are
+     * supported) and calls fromCSV() for each row. Skips the header row if
+     * present, and skips blank lines.</p>
+     *
+     * <p>Adapters that override {@link #parseCsvLine(String)} keep being read
+     * line by line through their own parser.</p>
+     *
+     * @param input the input stream containing CSV data
+     * @param action the action to perform for each parsed object
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    default void readEach(InputStream input, Consumer<? super T> action) throws IOException {
+        if (overridesParseCsvLine()) {
+            readEachLine(input, action);
+            return;
+        }
+
+        try (CSVReader reader = new CSVReader(new InputStreamReader(input), getDelimiter())) {
+            if (getHeader().length > 0 && reader.readRecord() == null) {
+                return; // Only a header (or nothing)
+            }
+
+            String[] fields;
+            while ((fields = reader.next()) != null) {
+                action.accept(fromCSV(fields));
+            }
+        }
+    }
+
+    /**
+     * Read a CSV file using all cores of the common fork-join pool.
+     *
+     * <p>The file is split into line-aligned byte ranges which are parsed and
+     * mapped with fromCSV() concurrently; the result keeps the file order.
+     * fromCSV() must therefore be safe to call from several threads. Small
+     * files, and adapters that override {@link #parseCsvLine(String)}, are
+     * read sequentially.</p>
+     *
+     * @param file the CSV file to read
+     * @return list of objects parsed from CSV, in file order
+     * @throws IOException if an I/O error occurs
+     */
+    default List<T> readParallel(Path file) throws IOException {
+        if (overridesParseCsvLine()) {
+            try (InputStream input = new BufferedInputStream(Files.newInputStream(file))) {
+                return read(input);
+            }
+        }
+        return CSVParallelReader.read(this, file, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Line-based read path for adapters with a custom {@link #parseCsvLine(String)}.
+     *
+     * @param input the input stream containing CSV data
+     * @param action the action to perform for each parsed object
+     * @throws IOException if an I/O error occurs
+     */
+    private void readEachLine(InputStream input, Consumer<? super T> action) throws IOException {
         try (BufferedReader reader = new BufferedReader(new InputStreamReader(input))) {
             String line;
             boolean firstLine = true;
@@ -102,17 +177,25 @@ public interface CSVAdapter<T> extends JMiniFormatAdapter<T> {
                 }
 
                 String[] fields = parseCsvLine(line);
-                items.add(fromCSV(fields));
+                action.accept(fromCSV(fields));
             }
         }
-        return items;
+    }
+
+    private boolean overridesParseCsvLine() {
+        try {
+            return getClass().getMethod("parseCsvLine", String.class).getDeclaringClass() != CSVAdapter.class;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
     }
 
     /**
      * Write objects to CSV format.
      *
      * <p>Default implementation writes header (if present) followed by
-     * one row per object using toCSV().</p>
+     * one row per object using toCSV(). Fields are written straight into a
+     * buffered writer, so no per-row String is built.</p>
      *
      * @param data the list of objects to write
      * @param output the output stream to write to
@@ -120,17 +203,82 @@ public interface CSVAdapter<T> extends JMiniFormatAdapter<T> {
      */
     @Override
     default void write(List<T> data, OutputStream output) throws IOException {
-        try (PrintWriter writer = new PrintWriter(new OutputStreamWriter(output))) {
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(output), 64 * 1024)) {
+            String delimiter = getDelimiter();
+            String lineSeparator = System.lineSeparator();
+
             // Write header
             String[] header = getHeader();
             if (header.length > 0) {
-                writer.println(String.join(getDelimiter(), header));
+                writeCsvRow(writer, header, delimiter);
+                writer.write(lineSeparator);
             }
 
             // Write data
             for (T item : data) {
-                String[] fields = toCSV(item);
-                writer.println(String.join(getDelimiter(), fields));
+                writeCsvRow(writer, toCSV(item), delimiter);
+                writer.write(lineSeparator);
+            }
+        }
+    }
+
+    /**
+     * Write one object as a CSV row, without the header or a line break.
+     *
+     * @param element the object to write; null writes nothing
+     * @param output the output stream to write to
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    default void writeElement(T element, OutputStream output) throws IOException {
+        if (element == null) {
+            return;
+        }
+        Writer writer = new OutputStreamWriter(output, StandardCharsets.UTF_8);
+        writeCsvRow(writer, toCSV(element), getDelimiter());
+        writer.flush();
+    }
+
+    /**
+     * Read one object written by {@link #writeElement}.
+     *
+     * @param input the input stream holding one CSV row
+     * @return the object read, or null for an empty row
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    default T readElement(InputStream input) throws IOException {
+        String row = new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        return row.isEmpty() ? null : fromCSV(parseCsvLine(row));
+    }
+
+    /**
+     * Write the fields of one CSV row, separated by the delimiter.
+     *
+     * <p>Fields containing the delimiter, a double quote or a line break are
+     * enclosed in double quotes, with embedded quotes doubled (RFC 4180).
+     * With multi-character delimiters, any field containing the first
+     * delimiter character is quoted so it cannot run into the delimiter.</p>
+     *
+     * @param writer the writer to append to
+     * @param fields the field values
+     * @param delimiter the field delimiter
+     * @throws IOException if an I/O error occurs
+     */
+    default void writeCsvRow(Writer writer, String[] fields, String delimiter) throws IOException {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                writer.write(delimiter);
+            }
+
+            String value = String.valueOf(fields[i]);
+            if (value.indexOf(delimiter.charAt(0)) >= 0 || value.indexOf('"') >= 0
+                    || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                writer.write('"');
+                writer.write(value.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(value);
             }
         }
     }
@@ -138,31 +286,68 @@ public interface CSVAdapter<T> extends JMiniFormatAdapter<T> {
     /**
      * Parse a CSV line handling quoted fields.
      *
-     * <p>Simple CSV parser that handles basic quoting. For complex CSV
-     * parsing needs, consider using Apache Commons CSV library.</p>
+     * <p>Parses one record with {@link CSVReader}: quoted fields may contain
+     * the delimiter and escaped quotes ({@code ""}).</p>
      *
      * @param line the CSV line to parse
      * @return array of field values
      */
     default String[] parseCsvLine(String line) {
-        List<String> fields = new ArrayList<>();
-        StringBuilder current = new StringBuilder();
-        boolean inQuotes = false;
-
-        for (int i = 0; i < line.length(); i++) {
-            char c = line.charAt(i);
-
-            if (c == '"') {
-                inQuotes = !inQuotes;
-            } else if (c == getDelimiter().charAt(0) && !inQuotes) {
-                fields.add(current.toString());
-                current = new StringBuilder();
-            } else {
-                current.append(c);
+        return CSVReader.parseLine(line, getDelimiter());
+    }
+
+    /**
+     * Recognize CSV by the shape of its first records.
+     *
+     * <p>Default implementation parses the complete records in the head and
+     * matches if they start with {@link #getHeader()} or all have the same
+     * number of fields (more than one). Heads with control characters or
+     * starting like JSON ({@code [} or {@code {}) do not match; anything else
+     * (e.g. a single column) is {@link ProbeResult#UNKNOWN}.</p>
+     *
+     * @param head the first bytes of the file
+     * @return whether the bytes look like this adapter's CSV
+     */
+    @Override
+    default ProbeResult probe(byte[] head) {
+        String text = new String(head, StandardCharsets.UTF_8);
+        String trimmed = text.strip();
+        if (trimmed.isEmpty()) {
+            return ProbeResult.UNKNOWN;
+        }
+        if (trimmed.charAt(0) == '[' || trimmed.charAt(0) == '{') {
+            return ProbeResult.NO_MATCH;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x20 && c != '\t' && c != '\n' && c != '\r') {
+                return ProbeResult.NO_MATCH;
+            }
+        }
+
+        List<String[]> records = new ArrayList<>();
+        try (CSVReader reader = new CSVReader(new StringReader(text), getDelimiter())) {
+            String[] record;
+            while ((record = reader.next()) != null) {
+                records.add(record);
             }
+        } catch (IOException e) {
+            return ProbeResult.UNKNOWN;
+        }
+        if (records.size() > 1 && !text.endsWith("\n") && !text.endsWith("\r")) {
+            records.remove(records.size() - 1); // Probably cut off
         }
-        fields.add(current.toString());
 
-        return fields.toArray(new String[0]);
+        String[] header = getHeader();
+        if (header.length > 0 && Arrays.equals(header, records.get(0))) {
+            return ProbeResult.MATCH;
+        }
+        int fields = records.get(0).length;
+        for (String[] record : records) {
+            if (record.length != fields) {
+                return ProbeResult.UNKNOWN;
+            }
+        }
+        return fields > 1 ? ProbeResult.MATCH : ProbeResult.UNKNOWN;
     }
 }
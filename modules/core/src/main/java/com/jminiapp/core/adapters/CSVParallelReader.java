@@ -0,0 +1,206 @@
+package com.jminiapp.core.adapters;
+
+import com.jminiapp.core.utils.MappedFileInputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Parses a CSV file on several threads.
+ *
+ * <p>The file is cut into byte ranges that end on a line break outside of
+ * quoted fields; each range is memory-mapped, parsed with {@link CSVReader}
+ * and mapped with {@link CSVAdapter#fromCSV(String[])} on its own task, and
+ * the per-range results are concatenated in file order.</p>
+ *
+ * <p>To find safe cut points, quote characters are first counted per range
+ * in parallel: a line break is a record boundary only when the number of
+ * quotes before it is even. This relies on RFC 4180 quoting and on an
+ * ASCII-compatible charset such as UTF-8.</p>
+ */
+final class CSVParallelReader {
+
+    /** Files smaller than this are not worth splitting. */
+    private static final long MIN_PARALLEL_SIZE = 1024 * 1024;
+
+    /** Upper bound on a range, well below the 2 GB mapping limit. */
+    private static final long MAX_RANGE_SIZE = 256L * 1024 * 1024;
+
+    private CSVParallelReader() {
+    }
+
+    /**
+     * Read a CSV file using the given pool.
+     *
+     * @param adapter the adapter defining delimiter, header and row mapping
+     * @param file the file to read
+     * @param pool the pool to parse on
+     * @param <T> the type of objects read
+     * @return the parsed objects, in file order
+     * @throws IOException if the file cannot be read
+     */
+    static <T> List<T> read(CSVAdapter<T> adapter, Path file, ForkJoinPool pool) throws IOException {
+        long size = Files.size(file);
+        int parallelism = pool.getParallelism();
+        if (size < MIN_PARALLEL_SIZE || parallelism < 2) {
+            try (InputStream input = new MappedFileInputStream(file)) {
+                return adapter.read(input);
+            }
+        }
+
+        int rangeCount = (int) Math.max(parallelism * 4L, (size + MAX_RANGE_SIZE - 1) / MAX_RANGE_SIZE);
+        long[] bounds = findRecordBoundaries(file, size, rangeCount, pool);
+
+        List<Callable<List<T>>> tasks = new ArrayList<>(rangeCount);
+        for (int i = 0; i < rangeCount; i++) {
+            long start = bounds[i];
+            long end = bounds[i + 1];
+            boolean first = i == 0;
+            tasks.add(() -> parseRange(adapter, file, start, end, first));
+        }
+
+        List<List<T>> parts = invokeAll(pool, tasks);
+        int total = 0;
+        for (List<T> part : parts) {
+            total += part.size();
+        }
+        List<T> items = new ArrayList<>(total);
+        for (List<T> part : parts) {
+            items.addAll(part);
+        }
+        return items;
+    }
+
+    /**
+     * Compute {@code rangeCount + 1} offsets cutting the file right after a
+     * line break that lies outside quotes (ranges may be empty).
+     */
+    private static long[] findRecordBoundaries(Path file, long size, int rangeCount, ForkJoinPool pool)
+            throws IOException {
+        long[] nominal = new long[rangeCount + 1];
+        for (int i = 0; i <= rangeCount; i++) {
+            nominal[i] = size * i / rangeCount;
+        }
+
+        // Quote parity at the start of each nominal range
+        List<Callable<Long>> counts = new ArrayList<>(rangeCount);
+        for (int i = 0; i < rangeCount; i++) {
+            long start = nominal[i];
+            long end = nominal[i + 1];
+            counts.add(() -> countQuotes(file, start, end));
+        }
+        List<Long> quoteCounts = invokeAll(pool, counts);
+        boolean[] insideQuotes = new boolean[rangeCount];
+        long quotes = 0;
+        for (int i = 0; i < rangeCount; i++) {
+            insideQuotes[i] = (quotes & 1) == 1;
+            quotes += quoteCounts.get(i);
+        }
+
+        // Move each nominal cut forward to the next unquoted line break
+        List<Callable<Long>> cuts = new ArrayList<>(rangeCount - 1);
+        for (int i = 1; i < rangeCount; i++) {
+            long start = nominal[i];
+            boolean quoted = insideQuotes[i];
+            cuts.add(() -> nextRecordStart(file, start, size, quoted));
+        }
+        List<Long> cutOffsets = invokeAll(pool, cuts);
+
+        long[] bounds = new long[rangeCount + 1];
+        bounds[rangeCount] = size;
+        for (int i = 1; i < rangeCount; i++) {
+            // A long quoted field can push a cut past the next one
+            bounds[i] = Math.max(bounds[i - 1], cutOffsets.get(i - 1));
+        }
+        return bounds;
+    }
+
+    private static long countQuotes(Path file, long start, long end) throws IOException {
+        long count = 0;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+            while (buffer.hasRemaining()) {
+                if (buffer.get() == '"') {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    private static long nextRecordStart(Path file, long start, long size, boolean quoted) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long regionStart = start;
+            while (regionStart < size) {
+                long length = Math.min(MAX_RANGE_SIZE, size - regionStart);
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, regionStart, length);
+                while (buffer.hasRemaining()) {
+                    byte b = buffer.get();
+                    if (b == '"') {
+                        quoted = !quoted;
+                    } else if (b == '\n' && !quoted) {
+                        return regionStart + buffer.position();
+                    }
+                }
+                regionStart += length;
+            }
+        }
+        return size;
+    }
+
+    private static <T> List<T> parseRange(CSVAdapter<T> adapter, Path file, long start, long end, boolean first)
+            throws IOException {
+        List<T> items = new ArrayList<>();
+        if (end <= start) {
+            return items;
+        }
+
+        try (CSVReader reader = new CSVReader(
+                new InputStreamReader(new MappedFileInputStream(file, start, end - start)),
+                adapter.getDelimiter())) {
+            if (first && adapter.getHeader().length > 0 && reader.readRecord() == null) {
+                return items;
+            }
+
+            String[] fields;
+            while ((fields = reader.next()) != null) {
+                items.add(adapter.fromCSV(fields));
+            }
+        }
+        return items;
+    }
+
+    private static <V> List<V> invokeAll(ForkJoinPool pool, List<Callable<V>> tasks) throws IOException {
+        List<V> results = new ArrayList<>(tasks.size());
+        try {
+            for (Future<V> future : pool.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while reading CSV in parallel", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException("Failed to read CSV in parallel", cause);
+        }
+        return results;
+    }
+}
@@ -0,0 +1,300 @@
+package com.jminiapp.core.adapters;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Streaming CSV record reader used by {@link CSVAdapter}.
+ *
+ * <p>Parses RFC 4180 style CSV:</p>
+ * <ul>
+ *   <li>Fields may be enclosed in double quotes</li>
+ *   <li>Quoted fields may contain delimiters, line breaks and escaped quotes ({@code ""})</li>
+ *   <li>Records end with LF, CRLF or CR</li>
+ *   <li>Delimiters may be longer than one character (e.g. {@code "||"})</li>
+ * </ul>
+ *
+ * <p>Input is read in large blocks into a reusable char buffer and field
+ * contents are collected in a second reusable buffer, so the only per-record
+ * allocations are the field Strings and the returned array.</p>
+ *
+ * <p>Blank lines (a single unquoted field that is empty or whitespace only)
+ * are skipped by {@link #next()}.</p>
+ */
+public final class CSVReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    // How a field ended
+    private static final int DELIMITER = 0;
+    private static final int END_OF_RECORD = 1;
+
+    private final Reader reader;
+    private final char[] delimiter;
+    private final char firstDelimiterChar;
+
+    private char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    private boolean endOfInput;
+
+    private char[] field = new char[256];
+    private int fieldLength;
+    private final List<String> fields = new ArrayList<>();
+    private boolean recordQuoted;
+
+    /**
+     * Create a reader over CSV text.
+     *
+     * @param reader the source of CSV text
+     * @param delimiter the field delimiter (one or more characters)
+     * @throws IllegalArgumentException if the delimiter is null or empty
+     */
+    public CSVReader(Reader reader, String delimiter) {
+        if (delimiter == null || delimiter.isEmpty()) {
+            throw new IllegalArgumentException("CSV delimiter cannot be null or empty");
+        }
+        this.reader = reader;
+        this.delimiter = delimiter.toCharArray();
+        this.firstDelimiterChar = this.delimiter[0];
+    }
+
+    /**
+     * Parse a single line of CSV text.
+     *
+     * <p>Unlike {@link #next()}, an empty line yields one empty field.</p>
+     *
+     * @param line the CSV text
+     * @param delimiter the field delimiter
+     * @return array of field values
+     */
+    public static String[] parseLine(String line, String delimiter) {
+        try (CSVReader csv = new CSVReader(new StringReader(line), delimiter)) {
+            String[] record = csv.readRecord();
+            return record != null ? record : new String[] {""};
+        } catch (IOException e) {
+            // StringReader does not throw
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Read the next non-blank record.
+     *
+     * @return the fields of the record, or null at end of input
+     * @throws IOException if the underlying reader fails
+     */
+    public String[] next() throws IOException {
+        String[] record;
+        do {
+            record = readRecord();
+        } while (record != null && isBlank(record));
+        return record;
+    }
+
+    /**
+     * Read the next record, including blank ones.
+     *
+     * @return the fields of the record, or null at end of input
+     * @throws IOException if the underlying reader fails
+     */
+    String[] readRecord() throws IOException {
+        if (position >= limit && !fill()) {
+            return null;
+        }
+
+        fields.clear();
+        recordQuoted = false;
+
+        while (true) {
+            fieldLength = 0;
+            int end = (position < limit || fill()) && buffer[position] == '"'
+                    ? readQuotedField()
+                    : readUnquotedField();
+            fields.add(fieldLength == 0 ? "" : new String(field, 0, fieldLength));
+
+            if (end != DELIMITER) {
+                break;
+            }
+        }
+
+        return fields.toArray(new String[0]);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    // --- Field parsing ---
+
+    /**
+     * Read an unquoted field up to the next delimiter or line break.
+     */
+    private int readUnquotedField() throws IOException {
+        while (position < limit || fill()) {
+            int start = position;
+            char[] buf = buffer;
+            int end = limit;
+            int i = start;
+
+            while (i < end) {
+                char c = buf[i];
+                if (c == firstDelimiterChar || c == '\n' || c == '\r') {
+                    break;
+                }
+                i++;
+            }
+
+            append(buf, start, i - start);
+            position = i;
+
+            if (i < end) {
+                char c = buf[i];
+                if (c == '\n' || c == '\r') {
+                    consumeLineBreak();
+                    return END_OF_RECORD;
+                }
+                if (matchDelimiter()) {
+                    return DELIMITER;
+                }
+                // First delimiter char without the rest: plain data
+                append(c);
+                position++;
+            }
+        }
+        return END_OF_RECORD;
+    }
+
+    /**
+     * Read a quoted field. Content after the closing quote up to the next
+     * delimiter or line break is kept as-is.
+     */
+    private int readQuotedField() throws IOException {
+        recordQuoted = true;
+        position++; // Opening quote
+
+        while (position < limit || fill()) {
+            int start = position;
+            char[] buf = buffer;
+            int end = limit;
+            int i = start;
+
+            while (i < end && buf[i] != '"') {
+                i++;
+            }
+
+            append(buf, start, i - start);
+            position = i;
+
+            if (i < end) {
+                position++; // Quote
+                if ((position < limit || fill()) && buffer[position] == '"') {
+                    append('"'); // Escaped quote
+                    position++;
+                } else {
+                    return readUnquotedField();
+                }
+            }
+        }
+        return END_OF_RECORD; // Unterminated quote: take what we have
+    }
+
+    private boolean matchDelimiter() throws IOException {
+        int length = delimiter.length;
+        if (length == 1) {
+            position++;
+            return true;
+        }
+
+        if (limit - position < length) {
+            compact();
+            while (limit - position < length && !endOfInput) {
+                fillAtLimit();
+            }
+            if (limit - position < length) {
+                return false;
+            }
+        }
+
+        for (int i = 1; i < length; i++) {
+            if (buffer[position + i] != delimiter[i]) {
+                return false;
+            }
+        }
+        position += length;
+        return true;
+    }
+
+    private void consumeLineBreak() throws IOException {
+        char c = buffer[position++];
+        if (c == '\r' && (position < limit || fill()) && buffer[position] == '\n') {
+            position++;
+        }
+    }
+
+    private boolean isBlank(String[] record) {
+        return record.length == 1 && !recordQuoted && record[0].isBlank();
+    }
+
+    // --- Buffer management ---
+
+    private void append(char c) {
+        if (fieldLength == field.length) {
+            field = Arrays.copyOf(field, field.length * 2);
+        }
+        field[fieldLength++] = c;
+    }
+
+    private void append(char[] source, int offset, int length) {
+        if (length == 0) {
+            return;
+        }
+        if (fieldLength + length > field.length) {
+            field = Arrays.copyOf(field, Math.max(field.length * 2, fieldLength + length));
+        }
+        System.arraycopy(source, offset, field, fieldLength, length);
+        fieldLength += length;
+    }
+
+    /**
+     * Refill the buffer once it has been fully consumed.
+     *
+     * @return true if at least one more character is available
+     */
+    private boolean fill() throws IOException {
+        position = 0;
+        limit = 0;
+        while (limit == 0 && !endOfInput) {
+            fillAtLimit();
+        }
+        return limit > 0;
+    }
+
+    /**
+     * Move unread characters to the start of the buffer.
+     */
+    private void compact() {
+        int remaining = limit - position;
+        System.arraycopy(buffer, position, buffer, 0, remaining);
+        position = 0;
+        limit = remaining;
+    }
+
+    private void fillAtLimit() throws IOException {
+        if (limit == buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+        int read = reader.read(buffer, limit, buffer.length - limit);
+        if (read < 0) {
+            endOfInput = true;
+        } else {
+            limit += read;
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.jminiapp.core.adapters;
+
+import com.jminiapp.core.api.JMiniFormatAdapter;
+import com.jminiapp.core.api.ProbeResult;
+
+import java.io.*;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Adapter decorator that gzips the output of another adapter.
+ *
+ * <p>Writes compress whatever the wrapped adapter produces and reads
+ * decompress before handing the data to it, so any adapter gains compression
+ * without changes. The format name is the wrapped format plus {@code ".gz"}
+ * (e.g. {@code "json.gz"}), which matches file names like
+ * {@code state.json.gz}.</p>
+ *
+ * <p>Output is compressed in independent blocks (gzip members) on the common
+ * fork/join pool, so large exports use several cores. The result is a regular
+ * gzip file readable by any gzip tool.</p>
+ *
+ * <p>The context wraps registered adapters automatically when a compressed
+ * format is requested, so this class only needs to be used directly to
+ * change the compression level or block size.</p>
+ *
+ * @param <T> the type of objects this adapter handles
+ */
+public class CompressedAdapter<T> implements JMiniFormatAdapter<T> {
+
+    /** Suffix added to the wrapped format name. */
+    public static final String SUFFIX = ".gz";
+
+    /** Default number of uncompressed bytes per compressed block. */
+    public static final int DEFAULT_BLOCK_SIZE = 1024 * 1024;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final JMiniFormatAdapter<T> delegate;
+    private final int level;
+    private final int blockSize;
+
+    /**
+     * Wrap an adapter with default compression settings.
+     *
+     * @param delegate the adapter producing the uncompressed data
+     */
+    public CompressedAdapter(JMiniFormatAdapter<T> delegate) {
+        this(delegate, Deflater.DEFAULT_COMPRESSION, DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * Wrap an adapter with explicit compression settings.
+     *
+     * @param delegate the adapter producing the uncompressed data
+     * @param level the deflate level, 1 (fastest) to 9 (smallest), or -1 for the default
+     * @param blockSize the number of uncompressed bytes compressed per block
+     * @throws IllegalArgumentException if an argument is out of range
+     */
+    public CompressedAdapter(JMiniFormatAdapter<T> delegate, int level, int blockSize) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("Adapter cannot be null");
+        }
+        if (level < Deflater.DEFAULT_COMPRESSION || level > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("Compression level must be between -1 and 9");
+        }
+        if (blockSize < 1024) {
+            throw new IllegalArgumentException("Block size must be at least 1024 bytes");
+        }
+        this.delegate = delegate;
+        this.level = level;
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * Get the format a compressed format wraps.
+     *
+     * @param format a format name
+     * @return the wrapped format (e.g. "json" for "json.gz"), or null if the
+     *         format is not a compressed one
+     */
+    public static String baseFormatOf(String format) {
+        if (format != null && format.length() > SUFFIX.length()
+                && format.regionMatches(true, format.length() - SUFFIX.length(), SUFFIX, 0, SUFFIX.length())) {
+            return format.substring(0, format.length() - SUFFIX.length());
+        }
+        return null;
+    }
+
+    /**
+     * Get the wrapped adapter.
+     *
+     * @return the adapter producing the uncompressed data
+     */
+    public JMiniFormatAdapter<T> getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public List<T> read(InputStream input) throws IOException {
+        return delegate.read(new GZIPInputStream(input, BUFFER_SIZE));
+    }
+
+    @Override
+    public void readEach(InputStream input, Consumer<? super T> action) throws IOException {
+        delegate.readEach(new GZIPInputStream(input, BUFFER_SIZE), action);
+    }
+
+    @Override
+    public void write(List<T> data, OutputStream output) throws IOException {
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        try (OutputStream compressed = new ParallelGzipOutputStream(
+                output, level, blockSize, pool, pool.getParallelism() * 2)) {
+            delegate.write(data, compressed);
+        }
+    }
+
+    /**
+     * Write one object with the wrapped adapter, uncompressed: a single
+     * element is too small to gain from compression.
+     */
+    @Override
+    public void writeElement(T element, OutputStream output) throws IOException {
+        delegate.writeElement(element, output);
+    }
+
+    @Override
+    public T readElement(InputStream input) throws IOException {
+        return delegate.readElement(input);
+    }
+
+    @Override
+    public String getFormatName() {
+        return delegate.getFormatName() + SUFFIX;
+    }
+
+    /**
+     * Match gzip data whose decompressed start matches the wrapped format.
+     *
+     * @param head the first bytes of the file
+     * @return the wrapped adapter's answer for the decompressed bytes, or
+     *         {@link ProbeResult#NO_MATCH} if the bytes are not gzip data
+     */
+    @Override
+    public ProbeResult probe(byte[] head) {
+        if (head.length < 2 || (head[0] & 0xFF) != 0x1f || (head[1] & 0xFF) != 0x8b) {
+            return head.length == 0 ? ProbeResult.UNKNOWN : ProbeResult.NO_MATCH;
+        }
+
+        // Decompress as much of the head as possible
+        byte[] decompressed = new byte[head.length];
+        int length = 0;
+        try (InputStream input = new GZIPInputStream(new ByteArrayInputStream(head))) {
+            int read;
+            while (length < decompressed.length
+                    && (read = input.read(decompressed, length, decompressed.length - length)) > 0) {
+                length += read;
+            }
+        } catch (IOException e) {
+            // Truncated stream: keep what was decompressed
+        }
+        return length == 0 ? ProbeResult.UNKNOWN : delegate.probe(Arrays.copyOf(decompressed, length));
+    }
+
+    @Override
+    public boolean validate(InputStream input, long maxBytes) {
+        try {
+            return delegate.validate(new GZIPInputStream(input, BUFFER_SIZE), maxBytes);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public boolean validate(InputStream input) {
+        try {
+            return delegate.validate(new GZIPInputStream(input, BUFFER_SIZE));
+        } catch (IOException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.jminiapp.core.adapters;
+
+import com.google.gson.Gson;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Holds the Gson instance built by each {@link JSONAdapter}.
+ *
+ * <p>Interfaces cannot hold per-instance state, so the cache lives here.
+ * {@link JSONAdapter#getGson()} runs for every record, so most adapters are
+ * looked up without locking: when {@code configureGson()} cannot depend on
+ * the instance (it is not overridden, or the adapter has no instance
+ * fields), one Gson is kept per adapter class in a {@link ClassValue}. Other
+ * adapters are keyed weakly by instance, so discarded adapters can be
+ * collected.</p>
+ */
+final class GsonCache {
+
+    private static final ClassValue<Slot> SLOTS = new ClassValue<Slot>() {
+        @Override
+        protected Slot computeValue(Class<?> type) {
+            return new Slot(!overridesConfigureGson(type) || !hasInstanceFields(type));
+        }
+    };
+
+    private static final Map<JSONAdapter<?>, Gson> INSTANCES =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
+    private GsonCache() {
+    }
+
+    /**
+     * Get the cached Gson for an adapter, building it on first use.
+     *
+     * @param adapter the adapter
+     * @return the adapter's Gson instance
+     */
+    static Gson get(JSONAdapter<?> adapter) {
+        // Gson is immutable and thread-safe, so a concurrent first call
+        // building a second instance is harmless
+        Slot slot = SLOTS.get(adapter.getClass());
+        if (slot.shared) {
+            Gson gson = slot.gson;
+            if (gson == null) {
+                gson = adapter.configureGson();
+                slot.gson = gson;
+            }
+            return gson;
+        }
+
+        Gson gson = INSTANCES.get(adapter);
+        if (gson == null) {
+            gson = adapter.configureGson();
+            INSTANCES.put(adapter, gson);
+        }
+        return gson;
+    }
+
+    /**
+     * Drop the cached Gson for an adapter.
+     *
+     * @param adapter the adapter
+     */
+    static void invalidate(JSONAdapter<?> adapter) {
+        Slot slot = SLOTS.get(adapter.getClass());
+        if (slot.shared) {
+            slot.gson = null;
+        } else {
+            INSTANCES.remove(adapter);
+        }
+    }
+
+    private static boolean overridesConfigureGson(Class<?> type) {
+        try {
+            return type.getMethod("configureGson").getDeclaringClass() != JSONAdapter.class;
+        } catch (NoSuchMethodException | SecurityException e) {
+            return true;
+        }
+    }
+
+    private static boolean hasInstanceFields(Class<?> type) {
+        try {
+            for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    if (!Modifier.isStatic(field.getModifiers())) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        } catch (SecurityException e) {
+            return true;
+        }
+    }
+
+    /**
+     * The Gson shared by the instances of one adapter class, if they share one.
+     */
+    private static final class Slot {
+        private final boolean shared;
+        private volatile Gson gson;
+
+        Slot(boolean shared) {
+            this.shared = shared;
+        }
+    }
+}
@@ -2,12 +2,19 @@ package com.jminiapp.core.adapters;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
-import com.google.gson.reflect.TypeToken;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
 import com.jminiapp.core.api.JMiniFormatAdapter;
+import com.jminiapp.core.api.ProbeResult;
 
 import java.io.*;
-import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * JSON-specific adapter interface with default implementations using Gson.
@@ -28,6 +35,9 @@ import java.util.List;
  *   <li>configureGson() - Customize Gson configuration</li>
  * </ul>
  *
+ * <p>The Gson instance returned by configureGson() is built once per adapter
+ * and reused by every read, write and conversion; see {@link #getGson()}.</p>
+ *
  * @param <T> the type of objects this adapter handles
  */
 public interface JSONAdapter<T> extends JMiniFormatAdapter<T> {
@@ -41,7 +51,7 @@ public interface JSONAdapter<T> extends JMiniFormatAdapter<T> {
      * @return JSON string representation
      */
     default String toJSON(T object) {
-        return configureGson().toJson(object);
+        return getGson().toJson(object);
     }
 
     /**
@@ -53,7 +63,7 @@ public interface JSONAdapter<T> extends JMiniFormatAdapter<T> {
      * @return the reconstructed object
      */
     default T fromJSON(String json) {
-        return configureGson().fromJson(json, getstateClass());
+        return getGson().fromJson(json, getstateClass());
     }
 
     /**
@@ -74,7 +84,9 @@ public interface JSONAdapter<T> extends JMiniFormatAdapter<T> {
      *   <li>Date format: yyyy-MM-dd</li>
      * </ul>
      *
-     * <p>Override this method to customize Gson behavior.</p>
+     * <p>Override this method to customize Gson behavior. It is called once
+     * per adapter, or once per adapter class when the adapter has no instance
+     * fields; use {@link #getGson()} to obtain the instance.</p>
      *
      * @return configured Gson instance
      */
@@ -85,6 +97,61 @@ public interface JSONAdapter<T> extends JMiniFormatAdapter<T> {
                 .create();
     }
 
+    /**
+     * Get the Gson instance used by this adapter.
+     *
+     * <p>Calls {@link #configureGson()} on first use and caches the result for
+     * this adapter instance, or for all instances of its class when the
+     * result cannot depend on the instance (configureGson() is not
+     * overridden, or the class has no instance fields). Those lookups take
+     * no lock. Gson instances are immutable and safe to share between
+     * threads.</p>
+     *
+     * @return the cached Gson instance
+     */
+    default Gson getGson() {
+        return GsonCache.get(this);
+    }
+
+    /**
+     * Discard the cached Gson instance.
+     *
+     * <p>Call this after changing anything {@link #configureGson()} depends on;
+     * the next operation rebuilds the instance. For adapters sharing one
+     * instance per class, this resets it for every instance of the class.</p>
+     */
+    default void resetGson() {
+        GsonCache.invalidate(this);
+    }
+
+    /**
+     * Write one object as a bare JSON value, without the enclosing array.
+     *
+     * @param element the object to write
+     * @param output the output stream to write to
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    default void writeElement(T element, OutputStream output) throws IOException {
+        output.write(toJSON(element).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Read one object written by {@link #writeElement}.
+     *
+     * @param input the input stream holding one JSON value
+     * @return the object read
+     * @throws IOException if an I/O error occurs or the JSON is invalid
+     */
+    @Override
+    default T readElement(InputStream input) throws IOException {
+        try {
+            return fromJSON(new String(input.readAllBytes(), StandardCharsets.UTF_8));
+        } catch (JsonParseException e) {
+            throw new IOException("Invalid JSON element: " + e.getMessage(), e);
+        }
+    }
+
     /**
      * Get the format name for JSON.
      *
@@ -98,7 +165,8 @@ public interface JSONAdapter<T> extends JMiniFormatAdapter<T> {
     /**
      * Read JSON data from an input stream.
      *
-     * <p>Default implementation uses Gson to parse a JSON array.</p>
+     * <p>Default implementation collects the elements produced by
+     * {@link #readEach(InputStream, Consumer)} into a list.</p>
      *
      * @param input the input stream containing JSON data
      * @return list of objects parsed from JSON
@@ -106,18 +174,69 @@ public interface JSONAdapter<T> extends JMiniFormatAdapter<T> {
      */
     @Override
     default List<T> read(InputStream input) throws IOException {
+        List<T> result = new ArrayList<>();
+        readEach(input, result::add);
+        return result;
+    }
+
+    /**
+     * Read JSON data from an input stream one array element at a time.
+     *
+     * <p>Default implementation walks a top-level JSON array with Gson's
+     * {@link JsonReader} and deserializes each element as it is reached.
+     * An empty document or a {@code null} literal yields no elements.</p>
+     *
+     * @param input the input stream containing JSON data
+     * @param action the action to perform for each parsed object
+     * @throws IOException if an I/O error occurs or the data is not a JSON array
+     */
+    @Override
+    default void readEach(InputStream input, Consumer<? super T> action) throws IOException {
         try (Reader reader = new InputStreamReader(input)) {
-            Gson gson = configureGson();
-            Type listType = TypeToken.getParameterized(List.class, getstateClass()).getType();
-            List<T> result = gson.fromJson(reader, listType);
-            return result != null ? result : new java.util.ArrayList<>();
+            Gson gson = getGson();
+            JsonReader jsonReader = gson.newJsonReader(reader);
+            jsonReader.setLenient(true); // Same leniency as Gson.fromJson(Reader, Type)
+            // Only parsing is wrapped; exceptions from the action pass through
+            try {
+                JsonToken token;
+                try {
+                    token = jsonReader.peek();
+                } catch (EOFException e) {
+                    return; // Empty document
+                }
+
+                if (token == JsonToken.NULL) {
+                    jsonReader.nextNull();
+                    return;
+                }
+
+                jsonReader.beginArray();
+            } catch (JsonParseException | IllegalStateException e) {
+                throw new IOException("Invalid JSON data: " + e.getMessage(), e);
+            }
+
+            while (true) {
+                T item;
+                try {
+                    if (!jsonReader.hasNext()) {
+                        jsonReader.endArray();
+                        return;
+                    }
+                    item = gson.fromJson(jsonReader, getstateClass());
+                } catch (JsonParseException | IllegalStateException e) {
+                    throw new IOException("Invalid JSON data: " + e.getMessage(), e);
+                }
+                action.accept(item);
+            }
         }
     }
 
     /**
      * Write objects to JSON format.
      *
-     * <p>Default implementation uses Gson to write a JSON array.</p>
+     * <p>Default implementation streams a JSON array through Gson's
+     * {@link JsonWriter}, serializing one element at a time straight to the
+     * output instead of building the whole document as a String first.</p>
      *
      * @param data the list of objects to write
      * @param output the output stream to write to
@@ -125,10 +244,46 @@ public interface JSONAdapter<T> extends JMiniFormatAdapter<T> {
      */
     @Override
     default void write(List<T> data, OutputStream output) throws IOException {
-        Gson gson = configureGson();
-        String json = gson.toJson(data);
-        try (Writer writer = new OutputStreamWriter(output)) {
-            writer.write(json);
+        Gson gson = getGson();
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(output));
+             JsonWriter jsonWriter = gson.newJsonWriter(writer)) {
+            jsonWriter.beginArray();
+            for (T item : data) {
+                if (item == null) {
+                    jsonWriter.nullValue();
+                } else {
+                    // Runtime type, like Gson does for list elements
+                    gson.toJson(item, item.getClass(), jsonWriter);
+                }
+            }
+            jsonWriter.endArray();
+        } catch (JsonIOException e) {
+            throw e.getCause() instanceof IOException ? (IOException) e.getCause() : new IOException(e);
+        }
+    }
+
+    /**
+     * Recognize JSON by its first significant character.
+     *
+     * <p>Default implementation skips a UTF-8 byte order mark and whitespace
+     * and matches {@code [} or {@code {}. An empty or blank head is
+     * {@link ProbeResult#UNKNOWN}.</p>
+     *
+     * @param head the first bytes of the file
+     * @return whether the bytes look like JSON
+     */
+    @Override
+    default ProbeResult probe(byte[] head) {
+        int i = 0;
+        if (head.length >= 3 && (head[0] & 0xFF) == 0xEF && (head[1] & 0xFF) == 0xBB && (head[2] & 0xFF) == 0xBF) {
+            i = 3;
+        }
+        while (i < head.length && Character.isWhitespace(head[i])) {
+            i++;
+        }
+        if (i == head.length) {
+            return ProbeResult.UNKNOWN;
         }
+        return head[i] == '[' || head[i] == '{' ? ProbeResult.MATCH : ProbeResult.NO_MATCH;
     }
 }
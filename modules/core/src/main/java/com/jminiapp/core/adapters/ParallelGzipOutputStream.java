@@ -0,0 +1,172 @@
+package com.jminiapp.core.adapters;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Gzip output stream that compresses fixed-size blocks in parallel.
+ *
+ * <p>Input is cut into blocks of {@code blockSize} bytes and each block is
+ * compressed on its own, on the given executor, into a complete gzip member.
+ * Members are written in order; a file made of several members is a valid
+ * gzip file that {@link java.util.zip.GZIPInputStream} and the {@code gzip}
+ * tool read as one stream. The cost is a few bytes per block and the
+ * compression context restarting at every block boundary.</p>
+ *
+ * <p>At most {@code maxPending} blocks are in flight, which bounds memory to
+ * roughly {@code 2 * maxPending * blockSize}. Output that fits in one block is
+ * compressed on the calling thread.</p>
+ */
+final class ParallelGzipOutputStream extends OutputStream {
+
+    private static final int GZIP_MAGIC = 0x8b1f;
+    private static final int TRAILER_SIZE = 8;
+
+    private final OutputStream output;
+    private final int level;
+    private final Executor executor;
+    private final int maxPending;
+    private final Deque<CompletableFuture<byte[]>> pending = new ArrayDeque<>();
+
+    private byte[] block;
+    private int blockLength;
+    private boolean closed;
+
+    /**
+     * Create a stream writing gzip data to another stream.
+     *
+     * @param output the stream receiving compressed data
+     * @param level the deflate level (0-9, or -1 for the default)
+     * @param blockSize the number of uncompressed bytes per block
+     * @param executor the executor compressing blocks
+     * @param maxPending the maximum number of blocks being compressed at once
+     */
+    ParallelGzipOutputStream(OutputStream output, int level, int blockSize, Executor executor, int maxPending) {
+        this.output = output;
+        this.level = level;
+        this.executor = executor;
+        this.maxPending = Math.max(1, maxPending);
+        this.block = new byte[blockSize];
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        if (blockLength == block.length) {
+            submitBlock();
+        }
+        block[blockLength++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        while (len > 0) {
+            if (blockLength == block.length) {
+                submitBlock();
+            }
+            int n = Math.min(len, block.length - blockLength);
+            System.arraycopy(b, off, block, blockLength, n);
+            blockLength += n;
+            off += n;
+            len -= n;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        try {
+            if (pending.isEmpty()) {
+                // Everything fits in one block: no point handing it off
+                output.write(compress(block, blockLength, level));
+            } else {
+                if (blockLength > 0) {
+                    submitBlock();
+                }
+                while (!pending.isEmpty()) {
+                    writeOldest();
+                }
+            }
+        } finally {
+            output.close();
+        }
+    }
+
+    private void submitBlock() throws IOException {
+        if (pending.size() >= maxPending) {
+            writeOldest();
+        }
+
+        byte[] data = block;
+        int length = blockLength;
+        pending.addLast(CompletableFuture.supplyAsync(() -> compress(data, length, level), executor));
+
+        block = new byte[data.length];
+        blockLength = 0;
+    }
+
+    private void writeOldest() throws IOException {
+        try {
+            output.write(pending.removeFirst().get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while compressing");
+        } catch (ExecutionException e) {
+            throw new IOException("Compression failed: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * Compress bytes into a complete gzip member.
+     */
+    static byte[] compress(byte[] data, int length, int level) {
+        Deflater deflater = new Deflater(level, true);
+        try {
+            deflater.setInput(data, 0, length);
+            deflater.finish();
+
+            // Deflate output can be slightly larger than its input
+            byte[] member = new byte[10 + length + length / 1000 + 64 + TRAILER_SIZE];
+            member[0] = (byte) GZIP_MAGIC;
+            member[1] = (byte) (GZIP_MAGIC >> 8);
+            member[2] = Deflater.DEFLATED;
+            // Flags, modification time, extra flags: all zero
+            member[9] = (byte) 0xff; // Unknown OS
+            int size = 10;
+
+            while (!deflater.finished()) {
+                if (size == member.length - TRAILER_SIZE) {
+                    member = Arrays.copyOf(member, member.length * 2);
+                }
+                size += deflater.deflate(member, size, member.length - TRAILER_SIZE - size);
+            }
+
+            CRC32 crc = new CRC32();
+            crc.update(data, 0, length);
+            writeIntLE(member, size, (int) crc.getValue());
+            writeIntLE(member, size + 4, length);
+            return Arrays.copyOf(member, size + TRAILER_SIZE);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static void writeIntLE(byte[] b, int offset, int value) {
+        b[offset] = (byte) value;
+        b[offset + 1] = (byte) (value >> 8);
+        b[offset + 2] = (byte) (value >> 16);
+        b[offset + 3] = (byte) (value >> 24);
+    }
+}
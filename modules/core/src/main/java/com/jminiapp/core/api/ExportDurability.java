@@ -0,0 +1,31 @@
+package com.jminiapp.core.api;
+
+/**
+ * How carefully an export protects the target file against crashes.
+ */
+public enum ExportDurability {
+
+    /**
+     * Write straight into the target file.
+     *
+     * <p>Fastest, but a crash mid-write leaves a truncated file behind.</p>
+     */
+    DIRECT,
+
+    /**
+     * Write a sibling temporary file, then atomically rename it over the target.
+     *
+     * <p>The target always holds either the old or the new content, even if
+     * the application is killed mid-write. Data may still be lost if the
+     * operating system crashes before flushing its caches. This is the default.</p>
+     */
+    ATOMIC,
+
+    /**
+     * Like {@link #ATOMIC}, and also force the file content and the directory
+     * entry to disk before returning.
+     *
+     * <p>Survives power loss, at the cost of waiting for the disk.</p>
+     */
+    DURABLE
+}
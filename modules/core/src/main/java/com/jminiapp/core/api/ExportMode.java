@@ -0,0 +1,24 @@
+package com.jminiapp.core.api;
+
+/**
+ * Controls what an export writes.
+ */
+public enum ExportMode {
+
+    /**
+     * Rewrite the whole file with the current data. This is the default.
+     */
+    SNAPSHOT,
+
+    /**
+     * Append only the changes made since the last save to a change log next
+     * to the file ({@code <file>.delta}), when possible.
+     *
+     * <p>Falls back to a snapshot (and drops the log) when the file was last
+     * saved elsewhere, when the data was replaced or cleared, or when the log
+     * would grow larger than the snapshot. Changes are only recorded once a
+     * delta export (or autosave) has run, so the first delta export writes a
+     * snapshot. Imports of the file replay the log automatically.</p>
+     */
+    DELTA
+}
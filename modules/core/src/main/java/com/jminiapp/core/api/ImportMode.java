@@ -0,0 +1,42 @@
+package com.jminiapp.core.api;
+
+/**
+ * Controls how an import reads a file and hands its records to the
+ * {@link ImportStrategy}.
+ */
+public enum ImportMode {
+
+    /**
+     * Read the whole file into a list, then merge it in one step.
+     *
+     * <p>The current data is left untouched if the file cannot be read.
+     * This is the default mode.</p>
+     */
+    BUFFERED,
+
+    /**
+     * Merge each record as soon as it is read.
+     *
+     * <p>Peak memory no longer depends on the size of the file, but a read
+     * error part way through leaves the records merged so far in place.</p>
+     */
+    STREAMING,
+
+    /**
+     * Like {@link #STREAMING}, but read the file through a read-only memory
+     * mapping instead of a FileInputStream.
+     *
+     * <p>Avoids a read system call per buffer fill on very large files. Only
+     * applies to regular files on the local file system.</p>
+     */
+    MAPPED,
+
+    /**
+     * Parse the file on several threads, then merge the result in one step.
+     *
+     * <p>Supported by {@link com.jminiapp.core.adapters.CSVAdapter}, which
+     * splits the file into line-aligned ranges and keeps the original record
+     * order. Other adapters fall back to {@link #BUFFERED}.</p>
+     */
+    PARALLEL
+}
@@ -1,5 +1,7 @@
 package com.jminiapp.core.api;
 
+import java.util.function.Function;
+
 import com.jminiapp.core.api.strategies.*;
 
 public class ImportStrategies {
@@ -8,8 +10,18 @@ public class ImportStrategies {
     public static final ImportStrategy APPEND = new AppendStrategy();
     public static final ImportStrategy SKIP_EXISTING = new SkipExistingStrategy();
     
+    // Same as SKIP_EXISTING, but compares items by key instead of equals()
+    public static <T> ImportStrategy skipExisting(Function<? super T, ?> keyFunction) {
+        return new SkipExistingStrategy(keyFunction);
+    }
+
     // Helper for the complex one
     public static ImportStrategy mergeById() {
         return new MergeByIdStrategy();
     }
+
+    // Same as mergeById(), but reads IDs through a function instead of reflection
+    public static <T> ImportStrategy mergeById(Function<? super T, ?> idFunction) {
+        return new MergeByIdStrategy(idFunction);
+    }
 }
\ No newline at end of file
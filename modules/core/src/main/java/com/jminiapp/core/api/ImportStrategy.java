@@ -1,5 +1,6 @@
 package com.jminiapp.core.api;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -15,4 +16,54 @@ public interface ImportStrategy {
      * @param <T> the type of data
      */
     <T> void merge(List<T> currentData, List<T> importedData);
-}
\ No newline at end of file
+
+    /**
+     * Starts an incremental merge that receives imported items one at a time.
+     *
+     * <p>Used by streaming imports so the imported file never has to be held in
+     * memory as a whole. The result must be the same as calling
+     * {@link #merge(List, List)} with all items passed to the session.</p>
+     *
+     * <p>Default implementation buffers the items and calls {@code merge()} on
+     * {@link Session#finish()}. Built-in strategies override this to merge each
+     * item as it arrives.</p>
+     *
+     * @param currentData the mutable list of existing application data (can be modified)
+     * @param <T> the type of data
+     * @return a session accepting the imported items
+     */
+    default <T> Session<T> begin(List<T> currentData) {
+        List<T> buffered = new ArrayList<>();
+        return new Session<T>() {
+            @Override
+            public void add(T item) {
+                buffered.add(item);
+            }
+
+            @Override
+            public void finish() {
+                merge(currentData, buffered);
+            }
+        };
+    }
+
+    /**
+     * An incremental merge started by {@link ImportStrategy#begin(List)}.
+     *
+     * @param <T> the type of data
+     */
+    interface Session<T> {
+        /**
+         * Merges one imported item.
+         *
+         * @param item the imported item
+         */
+        void add(T item);
+
+        /**
+         * Completes the merge once all items have been added.
+         */
+        default void finish() {
+        }
+    }
+}
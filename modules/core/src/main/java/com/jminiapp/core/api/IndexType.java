@@ -0,0 +1,25 @@
+package com.jminiapp.core.api;
+
+/**
+ * Kinds of secondary index an app can declare on its data.
+ *
+ * <p>Indexes map a key, computed from each element by a getter, to the
+ * elements with that key, and are kept up to date as the data changes.
+ * Elements whose key is null are not indexed.</p>
+ */
+public enum IndexType {
+
+    /**
+     * Hash index for keys that identify one element, like ids.
+     *
+     * <p>Looking up a key shared by several elements fails, since the
+     * data breaks the index's promise.</p>
+     */
+    UNIQUE,
+
+    /**
+     * Sorted index for keys that several elements may share, supporting
+     * range queries. Keys must be {@link Comparable}.
+     */
+    SORTED
+}
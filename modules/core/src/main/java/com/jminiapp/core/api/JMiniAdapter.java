@@ -0,0 +1,47 @@
+package com.jminiapp.core.api;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a format adapter for discovery.
+ *
+ * <p>The core jar's annotation processor lists every annotated adapter,
+ * with its format and the data type it handles, in
+ * {@code META-INF/jminiapp/adapters}. Up to JDK 22, javac runs it whenever
+ * the core jar is on the classpath; from JDK 23, compile with
+ * {@code -proc:full} or list the core jar in the compiler plugin's
+ * {@code annotationProcessorPaths}. Without the index, annotated adapters
+ * declared as services are still found, but their classes are loaded at
+ * startup. An app run with
+ * {@code JMiniAppRunner.withAdapterDiscovery()} reads that index at startup
+ * and creates each adapter only when its format is first used, without
+ * loading the adapter classes before.</p>
+ *
+ * <p>The adapter must be a public class with a public no-argument
+ * constructor.</p>
+ *
+ * <p><b>Example:</b></p>
+ * <pre>
+ * &#64;JMiniAdapter("json")
+ * public class TaskJSONAdapter implements JSONAdapter&lt;Task&gt; {
+ *     ...
+ * }
+ * </pre>
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface JMiniAdapter {
+
+    /**
+     * The format the adapter handles, as returned by
+     * {@link JMiniFormatAdapter#getFormatName()}.
+     *
+     * @return the format name (e.g., "csv", "json")
+     */
+    String value();
+}
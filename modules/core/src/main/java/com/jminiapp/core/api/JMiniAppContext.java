@@ -2,6 +2,8 @@ package com.jminiapp.core.api;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 
 /**
  * Context API for mini-apps to interact with framework services. 
@@ -28,6 +30,93 @@ public interface JMiniAppContext {
      */
     void clearData();
 
+    /**
+     * Declare a secondary index on the data, so elements can be found by
+     * key without scanning the list.
+     *
+     * <p>The index is kept up to date as the data changes, including by
+     * imports, {@link #setData(List)} and {@link #clearData()}. An element
+     * changed in place must be put back with {@code getData().set(index, item)}
+     * for the index to see its new key.</p>
+     *
+     * <p><b>Example:</b></p>
+     * <pre>
+     * context.createIndex("id", IndexType.UNIQUE, TodoItem::getId);
+     * context.createIndex("due", IndexType.SORTED, TodoItem::getDueDate);
+     * TodoItem item = context.findBy("id", 42);
+     * List&lt;TodoItem&gt; thisWeek = context.findRange("due", monday, nextMonday);
+     * </pre>
+     *
+     * @param name the index name
+     * @param type the kind of index
+     * @param key the getter computing an element's key
+     * @param <T> the type of objects in the list
+     * @throws IllegalArgumentException if an index with that name exists
+     */
+    <T> void createIndex(String name, IndexType type, Function<? super T, ?> key);
+
+    /**
+     * Start a lazy query over the data.
+     *
+     * <p><b>Example:</b></p>
+     * <pre>
+     * // Third page of open items, by due date, using the "due" index
+     * List&lt;TodoItem&gt; page = context.&lt;TodoItem&gt;query()
+     *         .where(item -&gt; !item.isDone())
+     *         .orderBy("due")
+     *         .offset(40)
+     *         .limit(20)
+     *         .list();
+     * </pre>
+     *
+     * @param <T> the type of objects in the list
+     * @return a query returning all elements, to be narrowed down
+     */
+    <T> Query<T> query();
+
+    /**
+     * Remove a secondary index.
+     *
+     * @param name the index name
+     */
+    void dropIndex(String name);
+
+    /**
+     * Find the element with a key in an index.
+     *
+     * @param index the index name
+     * @param key the key
+     * @param <T> the type of objects in the list
+     * @return the element, or null if none has the key
+     * @throws IllegalArgumentException if there is no such index
+     * @throws IllegalStateException if a unique index has several elements with the key
+     */
+    <T> T findBy(String index, Object key);
+
+    /**
+     * Find all elements with a key in an index.
+     *
+     * @param index the index name
+     * @param key the key
+     * @param <T> the type of objects in the list
+     * @return a new list with the elements, possibly empty
+     * @throws IllegalArgumentException if there is no such index
+     */
+    <T> List<T> findAll(String index, Object key);
+
+    /**
+     * Find the elements whose key lies in a range, in key order.
+     *
+     * @param index the name of a {@link IndexType#SORTED} index
+     * @param from the lowest key, inclusive, or null for no lower bound
+     * @param to the highest key, exclusive, or null for no upper bound
+     * @param <T> the type of objects in the list
+     * @return a new list with the elements, possibly empty
+     * @throws IllegalArgumentException if there is no such index
+     * @throws UnsupportedOperationException if the index is not sorted
+     */
+    <T> List<T> findRange(String index, Object from, Object to);
+
     /**
      * Import data from the default file using the specified format.
      *
@@ -87,6 +176,24 @@ public interface JMiniAppContext {
      */
     void importData(String filePath, String format, ImportStrategy strategy) throws IOException;
 
+    /**
+     * Import data from a file using the specified format, import strategy and import mode.
+     *
+     * <p><b>Example:</b></p>
+     * <pre>
+     * // Merges records one at a time instead of loading the whole file first
+     * context.importData("big.csv", "csv", ImportStrategies.APPEND, ImportMode.STREAMING);
+     * </pre>
+     *
+     * @param filePath path to the file to import
+     * @param format the format name (e.g., "csv", "json", "xml")
+     * @param strategy how to handle existing data
+     * @param mode how the file is read and merged
+     * @throws IOException if file cannot be read or format is invalid
+     * @throws UnsupportedOperationException if format is not supported
+     */
+    void importData(String filePath, String format, ImportStrategy strategy, ImportMode mode) throws IOException;
+
     /**
      * Export data to the default file in the specified format.
      *
@@ -113,11 +220,125 @@ public interface JMiniAppContext {
      * @throws UnsupportedOperationException if format is not supported
      */
     void exportData(String filePath, String format) throws IOException;
+
+    /**
+     * Export data to a file in the specified format and export mode.
+     *
+     * <p><b>Example:</b></p>
+     * <pre>
+     * // Appends only what changed since the last save to "todos.json.delta"
+     * context.exportData("todos.json", "json", ExportMode.DELTA);
+     * </pre>
+     *
+     * @param filePath path to the file to create
+     * @param format the format name (e.g., "csv", "json", "xml", "html")
+     * @param mode whether to write the full data or only the changes
+     * @throws IOException if file cannot be written
+     * @throws UnsupportedOperationException if format is not supported
+     */
+    void exportData(String filePath, String format, ExportMode mode) throws IOException;
+
+    /**
+     * Import every file matching a glob pattern.
+     *
+     * <p>The pattern's last part is matched against the file names in its
+     * directory, e.g. {@code "shards/data-*.csv"}; relative patterns are
+     * resolved like other paths. Matching files are imported in name order,
+     * see {@link #importAll(List, String, ImportStrategy)}.</p>
+     *
+     * @param pattern the glob pattern
+     * @param format the format name (e.g., "csv", "json", "xml")
+     * @param strategy how to handle existing data
+     * @throws IOException if no file matches, or a file cannot be read or is invalid
+     * @throws UnsupportedOperationException if format is not supported
+     */
+    void importAll(String pattern, String format, ImportStrategy strategy) throws IOException;
+
+    /**
+     * Import several files at once.
+     *
+     * <p>The files are read in parallel, then merged one after the other in
+     * the given order as one atomic change, so the result does not depend
+     * on which file was read first. With {@code REPLACE}, the files together
+     * replace the existing data. If any file fails to load, the data is left
+     * unchanged.</p>
+     *
+     * <p><b>Example:</b></p>
+     * <pre>
+     * context.importAll(List.of("a.csv", "b.csv"), "csv", ImportStrategies.APPEND);
+     * </pre>
+     *
+     * @param filePaths paths of the files to import
+     * @param format the format name (e.g., "csv", "json", "xml")
+     * @param strategy how to handle existing data
+     * @throws IOException if a file cannot be read or is invalid
+     * @throws UnsupportedOperationException if format is not supported
+     */
+    void importAll(List<String> filePaths, String format, ImportStrategy strategy) throws IOException;
+
+    /**
+     * Import data from the default file on a background thread.
+     *
+     * <p>Like {@link #importData(String)}, but returns at once. Several files
+     * can be imported at the same time: they are read in parallel and merged
+     * one at a time.</p>
+     *
+     * @param format the format name (e.g., "csv", "json", "xml")
+     * @return a future completing when the data is merged, or exceptionally
+     *         with the {@link IOException} or {@link UnsupportedOperationException}
+     *         the import failed with
+     */
+    CompletableFuture<Void> importDataAsync(String format);
+
+    /**
+     * Import data from a file on a background thread.
+     *
+     * <p><b>Example:</b></p>
+     * <pre>
+     * // Loads both files at once and continues when both are merged
+     * CompletableFuture.allOf(
+     *         context.importDataAsync("a.csv", "csv", ImportStrategies.APPEND),
+     *         context.importDataAsync("b.csv", "csv", ImportStrategies.APPEND))
+     *     .join();
+     * </pre>
+     *
+     * @param filePath path to the file to import
+     * @param format the format name (e.g., "csv", "json", "xml")
+     * @param strategy how to handle existing data
+     * @return a future completing when the data is merged, or exceptionally
+     *         with the exception the import failed with
+     */
+    CompletableFuture<Void> importDataAsync(String filePath, String format, ImportStrategy strategy);
+
+    /**
+     * Export data to the default file on a background thread.
+     *
+     * <p>Like {@link #exportData(String)}, but returns at once. The export
+     * does not overlap the merge of an import, but unless the state is
+     * thread-safe (see {@link StateConcurrency}), the data must not be
+     * changed otherwise until the future completes.</p>
+     *
+     * @param format the format name (e.g., "csv", "json", "xml", "html")
+     * @return a future completing when the file is written, or exceptionally
+     *         with the exception the export failed with
+     */
+    CompletableFuture<Void> exportDataAsync(String format);
+
+    /**
+     * Export data to a file on a background thread.
+     *
+     * @param filePath path to the file to create
+     * @param format the format name (e.g., "csv", "json", "xml", "html")
+     * @return a future completing when the file is written, or exceptionally
+     *         with the exception the export failed with
+     */
+    CompletableFuture<Void> exportDataAsync(String filePath, String format);
     
     /**
      * Get the list of supported format names for this mini-app.
      *
-     * @return list of format names (e.g., ["csv", "json", "xml"])
+     * @return unmodifiable list of format names, in registration order
+     *         (e.g., ["csv", "json", "xml"])
      */
     List<String> getSupportedFormats();
 
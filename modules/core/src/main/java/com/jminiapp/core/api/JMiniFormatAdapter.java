@@ -3,7 +3,11 @@ package com.jminiapp.core.api;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.IOException;
+import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
+
+import com.jminiapp.core.utils.BoundedInputStream;
 
 /**
  * Base interface for all format adapters.
@@ -14,8 +18,10 @@ import java.util.List;
  * <p>Each adapter implementation must provide:</p>
  * <ul>
  *   <li>read() - Convert from format to application objects</li>
+ *   <li>readEach() - Stream objects one at a time (optional, defaults to read())</li>
  *   <li>write() - Convert from application objects to format</li>
  *   <li>getFormatName() - Return the format identifier (e.g., "csv", "json")</li>
+ *   <li>probe() - Recognize the format from the first bytes of a file (optional)</li>
  * </ul>
  *
  * @param <T> the type of objects this adapter handles
@@ -31,6 +37,25 @@ public interface JMiniFormatAdapter<T> {
      */
     List<T> read(InputStream input) throws IOException;
 
+    /**
+     * Read data from an input stream, passing each object to the given action
+     * as soon as it is parsed.
+     *
+     * <p>Streaming imports use this method so that only one record has to be
+     * held in memory at a time. Default implementation calls {@link #read(InputStream)}
+     * and iterates over the result; adapters that can parse incrementally
+     * should override it.</p>
+     *
+     * @param input the input stream containing data in this format
+     * @param action the action to perform for each object read
+     * @throws IOException if an I/O error occurs during reading
+     */
+    default void readEach(InputStream input, Consumer<? super T> action) throws IOException {
+        for (T item : read(input)) {
+            action.accept(item);
+        }
+    }
+
     /**
      * Write application objects to an output stream in this format.
      *
@@ -40,6 +65,34 @@ public interface JMiniFormatAdapter<T> {
      */
     void write(List<T> data, OutputStream output) throws IOException;
 
+    /**
+     * Write a single object, as one record of a change log.
+     *
+     * <p>The bytes only need to be readable by {@link #readElement}. Default
+     * implementation writes a one-element list with {@link #write}; adapters
+     * whose documents carry a header or an envelope should write the bare
+     * element instead.</p>
+     *
+     * @param element the object to write (may be null)
+     * @param output the output stream to write to
+     * @throws IOException if an I/O error occurs during writing
+     */
+    default void writeElement(T element, OutputStream output) throws IOException {
+        write(Collections.singletonList(element), output);
+    }
+
+    /**
+     * Read a single object written by {@link #writeElement}.
+     *
+     * @param input the input stream holding exactly one element
+     * @return the object read (may be null)
+     * @throws IOException if an I/O error occurs during reading
+     */
+    default T readElement(InputStream input) throws IOException {
+        List<T> decoded = read(input);
+        return decoded.isEmpty() ? null : decoded.get(0);
+    }
+
     /**
      * Get the name identifier for this format.
      *
@@ -64,4 +117,44 @@ public interface JMiniFormatAdapter<T> {
             return false;
         }
     }
+
+    /**
+     * Validate the start of the input stream, reading at most {@code maxBytes}.
+     *
+     * <p>Default implementation reads the stream cut off after
+     * {@code maxBytes}. It returns true if the data reads without errors, or
+     * if the first error only happens at the cut-off, where a record may be
+     * incomplete.</p>
+     *
+     * @param input the input stream to validate
+     * @param maxBytes the maximum number of bytes to read
+     * @return true if no invalid data was found in the first {@code maxBytes}
+     */
+    default boolean validate(InputStream input, long maxBytes) {
+        BoundedInputStream bounded = new BoundedInputStream(input, maxBytes);
+        try {
+            read(bounded);
+            return true;
+        } catch (Exception e) {
+            return bounded.isLimitReached();
+        }
+    }
+
+    /**
+     * Check whether the first bytes of a file look like this format.
+     *
+     * <p>Used by format detection to avoid parsing whole files. The array
+     * holds the first few kilobytes of the file (all of it for small files)
+     * and may end in the middle of a record. Implementations should only
+     * look at cheap signals such as magic numbers or leading characters.</p>
+     *
+     * <p>Default implementation returns {@link ProbeResult#UNKNOWN}, which
+     * makes detection fall back to {@link #validate(InputStream, long)}.</p>
+     *
+     * @param head the first bytes of the file
+     * @return whether the bytes match this format
+     */
+    default ProbeResult probe(byte[] head) {
+        return ProbeResult.UNKNOWN;
+    }
 }
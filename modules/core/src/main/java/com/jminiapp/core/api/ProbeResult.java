@@ -0,0 +1,17 @@
+package com.jminiapp.core.api;
+
+/**
+ * Answer of {@link JMiniFormatAdapter#probe(byte[])}: whether the first bytes
+ * of a file look like the adapter's format.
+ */
+public enum ProbeResult {
+
+    /** The bytes clearly belong to this format (e.g. a magic number). */
+    MATCH,
+
+    /** The bytes clearly do not belong to this format. */
+    NO_MATCH,
+
+    /** The bytes are not enough to decide; a bounded validation is needed. */
+    UNKNOWN
+}
@@ -0,0 +1,153 @@
+package com.jminiapp.core.api;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Lazy query over the data of a mini-app.
+ *
+ * <p>Queries are built step by step and only run by a terminal method
+ * ({@link #list()}, {@link #first()}, {@link #count()},
+ * {@link #forEach(Consumer)}). Each step returns a new query, so a query
+ * can be kept and run again, e.g. once per page. Steps apply in the order
+ * they are added.</p>
+ *
+ * <p>Running a query walks the data in place, without copying it, and stops
+ * as soon as {@link #limit(int)} is satisfied. Conditions and orderings on
+ * a declared index (see {@link JMiniAppContext#createIndex}) look up the
+ * matching elements instead of scanning.</p>
+ *
+ * <p><b>Example:</b></p>
+ * <pre>
+ * List&lt;String&gt; page = context.&lt;TodoItem&gt;query()
+ *         .where(item -&gt; !item.isDone())
+ *         .orderBy("due")
+ *         .offset(40)
+ *         .limit(20)
+ *         .select(TodoItem::getTitle)
+ *         .list();
+ * </pre>
+ *
+ * <p>While a query runs, other threads' changes to thread-safe data wait
+ * (except with {@link StateConcurrency#COPY_ON_WRITE}); the functions given
+ * to a query must not modify the data.</p>
+ *
+ * @param <T> the type of the query's results
+ */
+public interface Query<T> {
+
+    /**
+     * Keep only the results matching a condition.
+     *
+     * @param condition the condition
+     * @return the new query
+     */
+    Query<T> where(Predicate<? super T> condition);
+
+    /**
+     * Keep only the results whose key in an index equals a value.
+     *
+     * <p>Looked up in the index when it is the first step besides other
+     * conditions; otherwise checked with the index's getter.</p>
+     *
+     * @param index the index name
+     * @param key the key to match
+     * @return the new query
+     * @throws IllegalArgumentException if there is no such index
+     */
+    Query<T> where(String index, Object key);
+
+    /**
+     * Keep only the results whose key in a sorted index lies in a range.
+     *
+     * @param index the name of a {@link IndexType#SORTED} index
+     * @param from the lowest key, inclusive, or null for no lower bound
+     * @param to the highest key, exclusive, or null for no upper bound
+     * @return the new query
+     * @throws IllegalArgumentException if there is no such index
+     * @throws UnsupportedOperationException if the index is not sorted
+     */
+    Query<T> whereBetween(String index, Object from, Object to);
+
+    /**
+     * Sort the results. Results that compare equal keep their order.
+     *
+     * <p>Followed by {@link #limit(int)}, only the first results are kept
+     * while sorting instead of sorting everything.</p>
+     *
+     * @param order the order
+     * @return the new query
+     */
+    Query<T> orderBy(Comparator<? super T> order);
+
+    /**
+     * Sort the results by their key in a sorted index.
+     *
+     * <p>As the first step besides conditions, the index order is used and
+     * nothing is sorted. Results without a key come last.</p>
+     *
+     * @param index the name of a {@link IndexType#SORTED} index
+     * @return the new query
+     * @throws IllegalArgumentException if there is no such index
+     * @throws UnsupportedOperationException if the index is not sorted
+     */
+    Query<T> orderBy(String index);
+
+    /**
+     * Skip the first results.
+     *
+     * @param count the number of results to skip
+     * @return the new query
+     * @throws IllegalArgumentException if count is negative
+     */
+    Query<T> offset(int count);
+
+    /**
+     * Keep at most a number of results.
+     *
+     * @param count the maximum number of results
+     * @return the new query
+     * @throws IllegalArgumentException if count is negative
+     */
+    Query<T> limit(int count);
+
+    /**
+     * Turn each result into another value.
+     *
+     * @param projection computes the new value
+     * @param <R> the type of the new values
+     * @return the new query
+     */
+    <R> Query<R> select(Function<? super T, ? extends R> projection);
+
+    /**
+     * Run the query.
+     *
+     * @return a new list with the results
+     */
+    List<T> list();
+
+    /**
+     * Run the query for its first result.
+     *
+     * @return the first result, or null if there is none
+     */
+    T first();
+
+    /**
+     * Run the query and count the results.
+     *
+     * @return the number of results
+     */
+    long count();
+
+    /**
+     * Run the query, handing each result to an action.
+     *
+     * @param action the action
+     */
+    void forEach(Consumer<? super T> action);
+}
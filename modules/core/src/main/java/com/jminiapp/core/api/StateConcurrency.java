@@ -0,0 +1,46 @@
+package com.jminiapp.core.api;
+
+/**
+ * Controls how the data list of an app can be shared between threads.
+ *
+ * <p>Every mode except {@link #NONE} makes single operations on the list
+ * returned by {@code getData()} thread-safe, iterates over a consistent
+ * snapshot, and runs imports and {@code removeIf}/{@code sort}/{@code replaceAll}
+ * as one atomic batch. Iterators of the thread-safe modes do not support
+ * {@code remove()} or {@code set()}; use the list methods instead.</p>
+ */
+public enum StateConcurrency {
+
+    /**
+     * No synchronization. The data must only be used from one thread.
+     * This is the default and the fastest mode.
+     */
+    NONE,
+
+    /**
+     * Every change copies the list and publishes the copy.
+     *
+     * <p>Reads and iteration never wait and never see a half-done change,
+     * but each single change costs a copy of the whole list. For data that
+     * is read far more often than it is changed.</p>
+     */
+    COPY_ON_WRITE,
+
+    /**
+     * Reads share a lock, changes take it exclusively.
+     *
+     * <p>Cheap changes at any rate; readers wait while a change (or an
+     * import) is in progress. Iteration copies the list under the read lock.</p>
+     */
+    LOCKED,
+
+    /**
+     * Optimistic lock-free reads with exclusive changes, for one writing
+     * thread and any number of readers.
+     *
+     * <p>Reads run without locking and are only retried under a lock when a
+     * change happened at the same time, so readers never slow down the
+     * writer. Several writers are still safe, but wait for each other.</p>
+     */
+    SINGLE_WRITER
+}
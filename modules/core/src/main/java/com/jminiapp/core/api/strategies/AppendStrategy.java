@@ -9,4 +9,9 @@ public class AppendStrategy implements ImportStrategy {
     public <T> void merge(List<T> currentData, List<T> importedData) {
         currentData.addAll(importedData);
     }
-}
\ No newline at end of file
+
+    @Override
+    public <T> Session<T> begin(List<T> currentData) {
+        return currentData::add;
+    }
+}
@@ -1,13 +1,32 @@
 package com.jminiapp.core.api.strategies;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 import com.jminiapp.core.api.ImportStrategy;
 
+/**
+ * Merges imported items into the current data by matching their IDs.
+ *
+ * <p>Items whose ID already exists are replaced in place; items with a new ID
+ * are appended. The existing data is indexed once per merge (ID → position),
+ * so merging is linear in the size of both lists.</p>
+ *
+ * <p>IDs are read either through a getter method resolved by name (defaults to
+ * {@code getId}) or through an explicit key function.</p>
+ */
 public class MergeByIdStrategy implements ImportStrategy {
-    
+
     private final String idFieldName;
+    private final Function<Object, ?> idFunction;
+    private final Map<Class<?>, MethodHandle> getterCache = new ConcurrentHashMap<>();
 
     /**
      * Default constructor uses "getId".
@@ -21,41 +40,123 @@ public class MergeByIdStrategy implements ImportStrategy {
      */
     public MergeByIdStrategy(String idGetterName) {
         this.idFieldName = idGetterName;
+        this.idFunction = null;
+    }
+
+    /**
+     * Use an explicit function to extract the ID of each item.
+     *
+     * <p>This avoids reflection entirely, e.g. {@code new MergeByIdStrategy(Task::getId)}.</p>
+     *
+     * @param idFunction function returning the ID of an item
+     * @param <T> the type of data
+     */
+    @SuppressWarnings("unchecked")
+    public <T> MergeByIdStrategy(Function<? super T, ?> idFunction) {
+        if (idFunction == null) {
+            throw new IllegalArgumentException("ID function cannot be null");
+        }
+        this.idFieldName = null;
+        this.idFunction = (Function<Object, ?>) idFunction;
     }
 
     @Override
     public <T> void merge(List<T> currentData, List<T> importedData) {
         if (importedData.isEmpty()) return;
 
-        try {
-            // Reflection setup
-            T firstItem = importedData.get(0);
-            Method getIdMethod = firstItem.getClass().getMethod(idFieldName);
+        Session<T> session = begin(currentData, importedData.size());
+        for (T newItem : importedData) {
+            session.add(newItem);
+        }
+    }
+
+    @Override
+    public <T> Session<T> begin(List<T> currentData) {
+        return begin(currentData, 0);
+    }
 
-            for (T newItem : importedData) {
-                Object newId = getIdMethod.invoke(newItem);
-                boolean found = false;
+    private <T> Session<T> begin(List<T> currentData, int expectedImports) {
+        return new Session<T>() {
+            private Function<Object, ?> ids;
+            private Map<Object, Integer> positions;
+            private boolean appendOnly;
 
-                // Scan existing data
-                for (int i = 0; i < currentData.size(); i++) {
-                    T existingItem = currentData.get(i);
-                    Object existingId = getIdMethod.invoke(existingItem);
+            @Override
+            public void add(T newItem) {
+                if (appendOnly) {
+                    currentData.add(newItem);
+                    return;
+                }
 
-                    if (newId.equals(existingId)) {
-                        currentData.set(i, newItem); // Update/Replace
-                        found = true;
-                        break;
+                try {
+                    if (positions == null) {
+                        ids = idFunction != null ? idFunction : getterFor(newItem.getClass());
+                        positions = index(currentData, ids, expectedImports);
                     }
-                }
 
-                if (!found) {
-                    currentData.add(newItem); // Insert
+                    Object newId = ids.apply(newItem);
+                    Integer position = newId != null ? positions.get(newId) : null;
+
+                    if (position != null) {
+                        currentData.set(position, newItem); // Update/Replace
+                    } else {
+                        if (newId != null) {
+                            positions.put(newId, currentData.size());
+                        }
+                        currentData.add(newItem); // Insert
+                    }
+                } catch (Exception e) {
+                    // Fallback: If we can't find IDs, just append and warn
+                    System.err.println("MergeById failed: " + e.getMessage() + ". Appending instead.");
+                    appendOnly = true;
+                    currentData.add(newItem);
                 }
             }
-        } catch (Exception e) {
-            // Fallback: If we can't find IDs, just append and warn
-            System.err.println("MergeById failed: " + e.getMessage() + ". Appending instead.");
-            currentData.addAll(importedData);
+        };
+    }
+
+    /**
+     * Index existing data by ID. The first occurrence of an ID wins,
+     * matching the order a linear scan would find it in.
+     */
+    private static Map<Object, Integer> index(List<?> currentData, Function<Object, ?> ids, int expectedImports) {
+        Map<Object, Integer> positions = new HashMap<>(Math.max(16, (currentData.size() + expectedImports) * 4 / 3));
+        for (int i = 0; i < currentData.size(); i++) {
+            Object existingId = ids.apply(currentData.get(i));
+            if (existingId != null) {
+                positions.putIfAbsent(existingId, i);
+            }
         }
+        return positions;
+    }
+
+    /**
+     * Resolve the ID getter for a class as a function backed by a cached
+     * {@link MethodHandle}.
+     *
+     * @param itemClass the runtime class of the imported items
+     * @return function that invokes the getter on an item
+     * @throws ReflectiveOperationException if the getter cannot be resolved
+     */
+    private Function<Object, ?> getterFor(Class<?> itemClass) throws ReflectiveOperationException {
+        MethodHandle getter = getterCache.get(itemClass);
+        if (getter == null) {
+            Method method = itemClass.getMethod(idFieldName);
+            getter = MethodHandles.publicLookup()
+                    .unreflect(method)
+                    .asType(MethodType.methodType(Object.class, Object.class));
+            getterCache.put(itemClass, getter);
+        }
+
+        MethodHandle handle = getter;
+        return item -> {
+            try {
+                return handle.invokeExact(item);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new IllegalStateException(t);
+            }
+        };
     }
-}
\ No newline at end of file
+}
@@ -10,4 +10,10 @@ public class ReplaceStrategy implements ImportStrategy {
         currentData.clear();
         currentData.addAll(importedData);
     }
-}
\ No newline at end of file
+
+    @Override
+    public <T> Session<T> begin(List<T> currentData) {
+        currentData.clear();
+        return currentData::add;
+    }
+}
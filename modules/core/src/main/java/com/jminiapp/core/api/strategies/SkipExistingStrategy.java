@@ -1,16 +1,74 @@
 package com.jminiapp.core.api.strategies;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
 
 import com.jminiapp.core.api.ImportStrategy;
 
+/**
+ * Only imports items that don't already exist in the current data.
+ *
+ * <p>By default items are compared with {@code equals()}/{@code hashCode()}.
+ * Pass a key function to compare by a cheaper key instead (e.g. an ID).
+ * Existing keys are collected into a hash set once per merge, and items
+ * repeated inside the same import are only added the first time.</p>
+ */
 public class SkipExistingStrategy implements ImportStrategy {
+
+    private final Function<Object, ?> keyFunction;
+
+    /**
+     * Compare items using their own {@code equals()}/{@code hashCode()}.
+     */
+    public SkipExistingStrategy() {
+        this.keyFunction = null;
+    }
+
+    /**
+     * Compare items by the key returned from the given function.
+     *
+     * @param keyFunction function returning the key that identifies an item
+     * @param <T> the type of data
+     */
+    @SuppressWarnings("unchecked")
+    public <T> SkipExistingStrategy(Function<? super T, ?> keyFunction) {
+        if (keyFunction == null) {
+            throw new IllegalArgumentException("Key function cannot be null");
+        }
+        this.keyFunction = (Function<Object, ?>) keyFunction;
+    }
+
     @Override
     public <T> void merge(List<T> currentData, List<T> importedData) {
+        if (importedData.isEmpty()) return;
+
+        Session<T> session = begin(currentData, importedData.size());
         for (T item : importedData) {
-            if (!currentData.contains(item)) {
+            session.add(item);
+        }
+    }
+
+    @Override
+    public <T> Session<T> begin(List<T> currentData) {
+        return begin(currentData, 0);
+    }
+
+    private <T> Session<T> begin(List<T> currentData, int expectedImports) {
+        Set<Object> seen = new HashSet<>(Math.max(16, (currentData.size() + expectedImports) * 4 / 3));
+        for (T item : currentData) {
+            seen.add(keyOf(item));
+        }
+
+        return item -> {
+            if (seen.add(keyOf(item))) {
                 currentData.add(item);
             }
-        }
+        };
+    }
+
+    private Object keyOf(Object item) {
+        return keyFunction != null ? keyFunction.apply(item) : item;
     }
-}
\ No newline at end of file
+}
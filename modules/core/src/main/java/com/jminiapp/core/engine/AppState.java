@@ -1,6 +1,14 @@
 package com.jminiapp.core.engine;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import com.jminiapp.core.api.IndexType;
+import com.jminiapp.core.api.Query;
+import com.jminiapp.core.api.StateConcurrency;
 
 /**
  * Container for application state (data).
@@ -8,12 +16,26 @@ import java.util.*;
  * <p>AppState holds the current state of a mini-app, including:</p>
  * <ul>
  *   <li>The actual data (typically a List of model objects)</li>
- *   <li>Modification tracking</li>
+ *   <li>Modification tracking, down to individual inserts, updates and deletes</li>
  *   <li>Model class type information</li>
  * </ul>
  *
  * <p>This class provides type-safe access to the application data and
- * tracks whether the data has been modified since the last save.</p>
+ * tracks whether the data has been modified since the last save. The list
+ * returned by {@link #getData()} records every change made through it;
+ * pending changes can be read with {@link #getPendingChanges()} (used by
+ * delta exports) once {@link #trackChanges()} was called, and observed with
+ * {@link #addChangeListener}.</p>
+ *
+ * <p>Changes to fields of an element are not visible to the list. Signal them
+ * with {@code getData().set(index, element)} or {@link #markUpdated(int)}.</p>
+ *
+ * <p>By default the data must only be used from one thread. Other
+ * {@link StateConcurrency} modes make the list safe to share; use
+ * {@link #snapshot()} for a consistent copy and {@link #batch(Consumer)} for
+ * several changes that must be applied together. Every change increments
+ * the state's version, which lets savers mark exactly the saved changes as
+ * saved while other threads keep changing the data.</p>
  *
  * <p>Example usage:</p>
  * <pre>
@@ -26,16 +48,32 @@ import java.util.*;
  */
 public class AppState {
 
-    private Object data;
-    private boolean modified;
+    /**
+     * Pending changes beyond this count (or the current size, if larger)
+     * are dropped in favour of a full save.
+     */
+    private static final int MIN_PENDING_CHANGES = 1024;
+
+    private final StateList<Object> data;
+    private final StateConcurrency concurrency;
+    private volatile boolean modified;
     private Class<?> stateClass;
 
+    // Change bookkeeping, guarded by itself. Changes arrive with the list
+    // locked against other writers, so the lock order is list, then bookkeeping.
+    private final Object bookkeeping = new Object();
+    private long version;
+    private final List<StateChange> pendingChanges = new ArrayList<>();
+    private boolean fullSaveRequired;
+    private boolean trackingChanges;
+    private final List<StateChangeListener> listeners = new CopyOnWriteArrayList<>();
+    private final Map<String, StateIndex> indexes = new ConcurrentHashMap<>();
+
     /**
      * Create a new empty AppState.
      */
     public AppState() {
-        this.data = new ArrayList<>();
-        this.modified = false;
+        this(null, StateConcurrency.NONE);
     }
 
     /**
@@ -44,24 +82,43 @@ public class AppState {
      * @param stateClass the class of objects stored in this state
      */
     public AppState(Class<?> stateClass) {
-        this();
+        this(stateClass, StateConcurrency.NONE);
+    }
+
+    /**
+     * Create a new AppState for a specific model class and concurrency mode.
+     *
+     * @param stateClass the class of objects stored in this state
+     * @param concurrency how the data may be shared between threads
+     */
+    public AppState(Class<?> stateClass, StateConcurrency concurrency) {
+        this.concurrency = concurrency != null ? concurrency : StateConcurrency.NONE;
+        this.data = StateList.create(this.concurrency, this::changed);
         this.stateClass = stateClass;
+        this.modified = false;
+    }
+
+    /**
+     * Get the concurrency mode of this state.
+     *
+     * @return the mode chosen at construction
+     */
+    public StateConcurrency getConcurrency() {
+        return concurrency;
     }
 
     /**
      * Get the data from this state.
      *
      * <p>Returns the data as a List. If no data has been set,
-     * returns an empty list.</p>
+     * returns an empty list. Modifications made through the returned
+     * list are tracked.</p>
      *
      * @param <T> the type of objects in the list
      * @return the current data as a List
      */
     @SuppressWarnings("unchecked")
     public <T> List<T> getData() {
-        if (data == null) {
-            data = new ArrayList<T>();
-        }
         return (List<T>) data;
     }
 
@@ -78,18 +135,204 @@ public class AppState {
     public <T> void setData(List<T> data) {
         // Create a defensive mutable copy to avoid UnsupportedOperationException
         // when using immutable lists like List.of()
-        this.data = data != null ? new ArrayList<>(data) : new ArrayList<T>();
-        this.modified = true;
+        this.data.reset(data != null ? new ArrayList<>(data) : new ArrayList<>());
     }
 
     /**
      * Clear all data from this state.
      */
     public void clear() {
-        if (data != null) {
-            getData().clear();
-            this.modified = true;
+        data.clear();
+    }
+
+    /**
+     * Make room for at least the given number of elements, so adding them
+     * does not grow the list step by step.
+     *
+     * <p>Has no effect in {@link StateConcurrency#COPY_ON_WRITE} mode, which
+     * sizes every copy exactly.</p>
+     *
+     * @param capacity the number of elements the data will hold
+     */
+    public void ensureCapacity(int capacity) {
+        data.ensureCapacity(capacity);
+    }
+
+    /**
+     * Apply several changes as one atomic step.
+     *
+     * <p>In the thread-safe modes other threads see either none or all of
+     * the changes, and no other change can happen in between. The list passed
+     * to the action is only valid inside it. Changes are tracked as usual.</p>
+     *
+     * @param action the changes to apply
+     * @param <T> the type of objects in the list
+     */
+    @SuppressWarnings("unchecked")
+    public <T> void batch(Consumer<? super List<T>> action) {
+        data.batch(list -> action.accept((List<T>) (List<?>) list));
+    }
+
+    /**
+     * Get a consistent, read-only copy of the data and its version.
+     *
+     * <p>In {@link StateConcurrency#NONE} mode this is a view of the live
+     * list rather than a copy.</p>
+     *
+     * @param <T> the type of objects in the list
+     * @return the snapshot
+     */
+    @SuppressWarnings("unchecked")
+    public <T> StateSnapshot<T> snapshot() {
+        return (StateSnapshot<T>) data.snapshot(this::getVersion);
+    }
+
+    /**
+     * Get the current version of the data: the number of changes made to it.
+     *
+     * @return the version
+     */
+    public long getVersion() {
+        synchronized (bookkeeping) {
+            return version;
+        }
+    }
+
+    /**
+     * Declare a secondary index on the data.
+     *
+     * <p>The index maps the key the getter returns for each element to that
+     * element, and is updated with every change made through the list, so
+     * {@link #findBy(String, Object)} does not have to scan the data. As with
+     * delta exports, an element changed in place must be reported with
+     * {@code set()} or {@link #markUpdated(int)} for the index to see its
+     * new key. The index is built on its first lookup.</p>
+     *
+     * <p><b>Example:</b></p>
+     * <pre>
+     * state.createIndex("id", IndexType.UNIQUE, TodoItem::getId);
+     * TodoItem item = state.findBy("id", 42);
+     * </pre>
+     *
+     * @param name the index name
+     * @param type the kind of index
+     * @param key the getter computing an element's key
+     * @param <T> the type of objects in the list
+     * @throws IllegalArgumentException if an index with that name exists
+     */
+    @SuppressWarnings("unchecked")
+    public <T> void createIndex(String name, IndexType type, Function<? super T, ?> key) {
+        if (name == null || type == null || key == null) {
+            throw new IllegalArgumentException("Index needs a name, a type and a key");
+        }
+        StateIndex index = new StateIndex(name, type, (Function<Object, ?>) key, this::snapshot);
+        if (indexes.putIfAbsent(name, index) != null) {
+            throw new IllegalArgumentException("Index '" + name + "' already exists");
+        }
+        addChangeListener(index);
+    }
+
+    /**
+     * Remove a secondary index.
+     *
+     * @param name the index name
+     */
+    public void dropIndex(String name) {
+        StateIndex index = indexes.remove(name);
+        if (index != null) {
+            removeChangeListener(index);
+        }
+    }
+
+    /**
+     * Find the element with a key in an index.
+     *
+     * @param index the index name
+     * @param key the key
+     * @param <T> the type of objects in the list
+     * @return the element, or null if none has the key; for a sorted index
+     *         with several, the one added to the index first
+     * @throws IllegalArgumentException if there is no such index
+     * @throws IllegalStateException if a unique index has several elements with the key
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T findBy(String index, Object key) {
+        return (T) indexNamed(index).find(key);
+    }
+
+    /**
+     * Find all elements with a key in an index.
+     *
+     * @param index the index name
+     * @param key the key
+     * @param <T> the type of objects in the list
+     * @return a new list with the elements, possibly empty
+     * @throws IllegalArgumentException if there is no such index
+     */
+    @SuppressWarnings("unchecked")
+    public <T> List<T> findAll(String index, Object key) {
+        return (List<T>) indexNamed(index).findAll(key);
+    }
+
+    /**
+     * Find the elements whose key lies in a range, in key order.
+     *
+     * @param index the name of a sorted index
+     * @param from the lowest key, inclusive, or null for no lower bound
+     * @param to the highest key, exclusive, or null for no upper bound
+     * @param <T> the type of objects in the list
+     * @return a new list with the elements, possibly empty
+     * @throws IllegalArgumentException if there is no such index
+     * @throws UnsupportedOperationException if the index is not sorted
+     */
+    @SuppressWarnings("unchecked")
+    public <T> List<T> findRange(String index, Object from, Object to) {
+        return (List<T>) indexNamed(index).findRange(from, to);
+    }
+
+    /**
+     * Start a query over the data.
+     *
+     * <p><b>Example:</b></p>
+     * <pre>
+     * List&lt;TodoItem&gt; firstPage = state.&lt;TodoItem&gt;query()
+     *         .where(item -&gt; !item.isDone())
+     *         .limit(20)
+     *         .list();
+     * </pre>
+     *
+     * @param <T> the type of objects in the list
+     * @return a query returning all elements, to be narrowed down
+     */
+    public <T> Query<T> query() {
+        return new StateQuery<>(this);
+    }
+
+    /**
+     * Run a read-only action over the data in place; see {@link StateList#scan}.
+     */
+    <R> R scan(Function<? super List<Object>, R> action) {
+        return data.scan(action);
+    }
+
+    StateIndex indexNamed(String name) {
+        StateIndex index = name != null ? indexes.get(name) : null;
+        if (index == null) {
+            throw new IllegalArgumentException("No index named '" + name + "'");
         }
+        return index;
+    }
+
+    /**
+     * Record that the element at the given position changed in place.
+     *
+     * <p>Use this after mutating an element's fields so delta exports and
+     * change listeners pick up the update.</p>
+     *
+     * @param index the position of the updated element
+     */
+    public void markUpdated(int index) {
+        data.touch(index);
     }
 
     /**
@@ -104,10 +347,109 @@ public class AppState {
     /**
      * Set the modified flag.
      *
+     * <p>Setting it to false marks the data as saved, which also discards the
+     * pending changes.</p>
+     *
      * @param modified true if data has been modified
      */
     public void setModified(boolean modified) {
-        this.modified = modified;
+        if (modified) {
+            this.modified = true;
+        } else {
+            synchronized (bookkeeping) {
+                markSaved(version);
+            }
+        }
+    }
+
+    /**
+     * Mark the data as saved up to a version.
+     *
+     * <p>Changes made after {@code savedVersion} (e.g. by other threads while
+     * a snapshot was being written) stay pending and keep the data modified.</p>
+     *
+     * @param savedVersion the version that was saved, e.g. from
+     *        {@link StateSnapshot#getVersion()} or {@link StateChange#getVersion()}
+     */
+    public void markSaved(long savedVersion) {
+        synchronized (bookkeeping) {
+            if (savedVersion >= version) {
+                modified = false;
+                pendingChanges.clear();
+                fullSaveRequired = false;
+                return;
+            }
+            if (!fullSaveRequired) {
+                // Pending changes are in version order
+                int saved = 0;
+                while (saved < pendingChanges.size() && pendingChanges.get(saved).getVersion() <= savedVersion) {
+                    saved++;
+                }
+                pendingChanges.subList(0, saved).clear();
+            }
+            // A full save still required was triggered after savedVersion, or
+            // dropped changes made after it; either way it still applies
+        }
+    }
+
+    /**
+     * Keep the changes made from now on, for delta exports.
+     *
+     * <p>Until this is called changes are only counted: the pending changes
+     * stay empty and any change requires a full save. Once the data has been
+     * saved in full, the changes after that save are kept.</p>
+     */
+    public void trackChanges() {
+        synchronized (bookkeeping) {
+            trackingChanges = true;
+        }
+    }
+
+    /**
+     * Get the changes made since the data was last saved, in order.
+     *
+     * <p>Only meaningful when {@link #isFullSaveRequired()} is false.</p>
+     *
+     * @return a copy of the pending changes
+     */
+    public List<StateChange> getPendingChanges() {
+        synchronized (bookkeeping) {
+            return new ArrayList<>(pendingChanges);
+        }
+    }
+
+    /**
+     * Check whether the pending changes can no longer describe the difference
+     * to the last save, so the whole data has to be written.
+     *
+     * <p>This is the case after {@link #setData(List)} or {@link #clear()},
+     * when more changes piled up than there are elements, and after any
+     * change while changes are not tracked (see {@link #trackChanges()}).</p>
+     *
+     * @return true if only a full save can persist the current data
+     */
+    public boolean isFullSaveRequired() {
+        synchronized (bookkeeping) {
+            return fullSaveRequired;
+        }
+    }
+
+    /**
+     * Register a listener notified of every change to the data.
+     *
+     * @param listener the listener
+     */
+    public void addChangeListener(StateChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Unregister a change listener.
+     *
+     * @param listener the listener
+     */
+    public void removeChangeListener(StateChangeListener listener) {
+        listeners.remove(listener);
     }
 
     /**
@@ -145,4 +487,31 @@ public class AppState {
     public boolean isEmpty() {
         return getData().isEmpty();
     }
+
+    private void changed(StateChange.Type type, int index, Object element, Object previous) {
+        StateChange change = null;
+        synchronized (bookkeeping) {
+            version++;
+            modified = true;
+
+            if (!trackingChanges || type == StateChange.Type.CLEAR || type == StateChange.Type.RESET
+                    || pendingChanges.size() >= Math.max(MIN_PENDING_CHANGES, data.size())) {
+                pendingChanges.clear();
+                fullSaveRequired = true;
+            }
+
+            if (!fullSaveRequired || !listeners.isEmpty()) {
+                change = new StateChange(type, index, element, previous, version);
+                if (!fullSaveRequired) {
+                    pendingChanges.add(change);
+                }
+            }
+        }
+
+        if (change != null) {
+            for (StateChangeListener listener : listeners) {
+                listener.onChange(change);
+            }
+        }
+    }
 }
@@ -0,0 +1,259 @@
+package com.jminiapp.core.engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * {@link com.jminiapp.core.api.StateConcurrency#COPY_ON_WRITE} list: the
+ * content is an immutable array that every change replaces.
+ *
+ * <p>Reads, iteration and snapshots use whatever array is current and never
+ * lock. Writers are serialized by a monitor; a single change copies the
+ * array once, a batch (imports, {@code removeIf}, {@code sort}, ...) copies
+ * it once for all its changes.</p>
+ *
+ * @param <E> the type of elements
+ */
+final class CopyOnWriteStateList<E> extends StateList<E> {
+
+    private static final Object[] EMPTY = new Object[0];
+
+    private final Sink sink;
+    private final Object writeLock = new Object();
+    private volatile Object[] array = EMPTY;
+
+    CopyOnWriteStateList(Sink sink) {
+        this.sink = sink;
+    }
+
+    // --- Reads ---
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        Object[] a = array;
+        Objects.checkIndex(index, a.length);
+        return (E) a[index];
+    }
+
+    @Override
+    public int size() {
+        return array.length;
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        return view(array).indexOf(o);
+    }
+
+    @Override
+    public int lastIndexOf(Object o) {
+        return view(array).lastIndexOf(o);
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return indexOf(o) >= 0;
+    }
+
+    @Override
+    public Object[] toArray() {
+        return array.clone();
+    }
+
+    @Override
+    public <T> T[] toArray(T[] a) {
+        return view(array).toArray(a);
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return listIterator(0);
+    }
+
+    @Override
+    public ListIterator<E> listIterator(int index) {
+        return view(array).listIterator(index);
+    }
+
+    @Override
+    StateSnapshot<E> snapshot(LongSupplier version) {
+        // Published arrays are never modified, so no copy is needed, but the
+        // version has to be read while no writer can publish
+        synchronized (writeLock) {
+            return new StateSnapshot<>(view(array), version.getAsLong());
+        }
+    }
+
+    @Override
+    <R> R scan(Function<? super List<E>, R> action) {
+        return action.apply(view(array));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<E> view(Object[] a) {
+        return Collections.unmodifiableList((List<E>) Arrays.asList(a));
+    }
+
+    // --- Single changes ---
+
+    @Override
+    public E set(int index, E element) {
+        synchronized (writeLock) {
+            Object[] a = array.clone();
+            @SuppressWarnings("unchecked")
+            E previous = (E) a[Objects.checkIndex(index, a.length)];
+            a[index] = element;
+            array = a;
+            sink.changed(StateChange.Type.UPDATE, index, element, previous);
+            return previous;
+        }
+    }
+
+    @Override
+    public boolean add(E element) {
+        synchronized (writeLock) {
+            add(array.length, element);
+            return true;
+        }
+    }
+
+    @Override
+    public void add(int index, E element) {
+        synchronized (writeLock) {
+            Object[] current = array;
+            Objects.checkIndex(index, current.length + 1);
+            Object[] a = new Object[current.length + 1];
+            System.arraycopy(current, 0, a, 0, index);
+            a[index] = element;
+            System.arraycopy(current, index, a, index + 1, current.length - index);
+            array = a;
+            sink.changed(StateChange.Type.INSERT, index, element, null);
+        }
+    }
+
+    @Override
+    public E remove(int index) {
+        synchronized (writeLock) {
+            Object[] current = array;
+            @SuppressWarnings("unchecked")
+            E previous = (E) current[Objects.checkIndex(index, current.length)];
+            Object[] a = new Object[current.length - 1];
+            System.arraycopy(current, 0, a, 0, index);
+            System.arraycopy(current, index + 1, a, index, current.length - index - 1);
+            array = a;
+            sink.changed(StateChange.Type.DELETE, index, null, previous);
+            return previous;
+        }
+    }
+
+    @Override
+    public void clear() {
+        synchronized (writeLock) {
+            array = EMPTY;
+            sink.changed(StateChange.Type.CLEAR, -1, null, null);
+        }
+    }
+
+    @Override
+    void reset(ArrayList<E> content) {
+        synchronized (writeLock) {
+            array = content.toArray();
+            sink.changed(StateChange.Type.RESET, -1, null, null);
+        }
+    }
+
+    @Override
+    void ensureCapacity(int capacity) {
+        // Nothing to pre-size: every change allocates an exact-size array
+    }
+
+    @Override
+    void touch(int index) {
+        synchronized (writeLock) {
+            E element = get(index);
+            sink.changed(StateChange.Type.UPDATE, index, element, element);
+        }
+    }
+
+    // --- Batches ---
+
+    @Override
+    @SuppressWarnings("unchecked")
+    void batch(Consumer<? super List<E>> mutation) {
+        synchronized (writeLock) {
+            ArrayList<E> working = new ArrayList<>((List<E>) Arrays.asList(array));
+            try {
+                mutation.accept(new TrackedList<>(sink, working));
+            } finally {
+                // Publish whatever was applied: its changes were reported already
+                array = working.toArray();
+            }
+        }
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        boolean[] removed = new boolean[1];
+        batch(l -> removed[0] = l.remove(o));
+        return removed[0];
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends E> collection) {
+        boolean[] added = new boolean[1];
+        batch(l -> added[0] = l.addAll(collection));
+        return added[0];
+    }
+
+    @Override
+    public boolean addAll(int index, Collection<? extends E> collection) {
+        boolean[] added = new boolean[1];
+        batch(l -> added[0] = l.addAll(index, collection));
+        return added[0];
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> collection) {
+        return removeIf(collection::contains);
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> collection) {
+        return removeIf(e -> !collection.contains(e));
+    }
+
+    @Override
+    public boolean removeIf(Predicate<? super E> filter) {
+        boolean[] removed = new boolean[1];
+        batch(l -> removed[0] = l.removeIf(filter));
+        return removed[0];
+    }
+
+    @Override
+    public void replaceAll(UnaryOperator<E> operator) {
+        batch(l -> l.replaceAll(operator));
+    }
+
+    @Override
+    public void sort(Comparator<? super E> comparator) {
+        batch(l -> l.sort(comparator));
+    }
+
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        batch(l -> l.subList(fromIndex, toIndex).clear());
+    }
+}
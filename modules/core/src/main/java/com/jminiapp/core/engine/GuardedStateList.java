@@ -0,0 +1,233 @@
+package com.jminiapp.core.engine;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Thread-safe list that runs every operation of an unsynchronized
+ * {@link TrackedList} under a lock chosen by the subclass.
+ *
+ * <p>Iterators walk a copy taken under the read lock, so they never throw
+ * {@link java.util.ConcurrentModificationException} and do not support
+ * modification. Bulk operations ({@code removeIf}, {@code sort},
+ * {@code replaceAll}, ...) run as one locked step.</p>
+ *
+ * @param <E> the type of elements
+ */
+abstract class GuardedStateList<E> extends StateList<E> {
+
+    /** The working list; only touched inside {@link #read} or {@link #write}. */
+    final TrackedList<E> list;
+
+    GuardedStateList(Sink sink) {
+        this.list = new TrackedList<>(sink);
+    }
+
+    /**
+     * Run an action that does not modify the list.
+     */
+    abstract <R> R read(Supplier<R> action);
+
+    /**
+     * Like {@link #read}, but always holding the read lock: for long reads
+     * that run other code and must not see a change half-way.
+     */
+    abstract <R> R readLocked(Supplier<R> action);
+
+    /**
+     * Like {@link #read}, without boxing the result.
+     */
+    abstract int readInt(IntSupplier action);
+
+    /**
+     * Run an action that may modify the list, excluding all other actions.
+     */
+    abstract <R> R write(Supplier<R> action);
+
+    // --- Reads ---
+
+    @Override
+    public E get(int index) {
+        return read(() -> list.get(index));
+    }
+
+    @Override
+    public int size() {
+        return readInt(list::size);
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        return readInt(() -> list.indexOf(o));
+    }
+
+    @Override
+    public int lastIndexOf(Object o) {
+        return readInt(() -> list.lastIndexOf(o));
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return indexOf(o) >= 0;
+    }
+
+    @Override
+    public Object[] toArray() {
+        return read(list::toArray);
+    }
+
+    @Override
+    public <T> T[] toArray(T[] a) {
+        return read(() -> list.toArray(a));
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return listIterator(0);
+    }
+
+    @Override
+    public ListIterator<E> listIterator(int index) {
+        return copy().listIterator(index);
+    }
+
+    @Override
+    StateSnapshot<E> snapshot(LongSupplier version) {
+        return read(() -> new StateSnapshot<>(Collections.unmodifiableList(new ArrayList<>(list.elements())),
+                version.getAsLong()));
+    }
+
+    @Override
+    <R> R scan(Function<? super List<E>, R> action) {
+        return readLocked(() -> action.apply(Collections.unmodifiableList(list.elements())));
+    }
+
+    private List<E> copy() {
+        return Collections.unmodifiableList(read(() -> new ArrayList<>(list.elements())));
+    }
+
+    // --- Writes ---
+
+    @Override
+    public E set(int index, E element) {
+        return write(() -> list.set(index, element));
+    }
+
+    @Override
+    public boolean add(E element) {
+        return write(() -> list.add(element));
+    }
+
+    @Override
+    public void add(int index, E element) {
+        write(() -> {
+            list.add(index, element);
+            return null;
+        });
+    }
+
+    @Override
+    public E remove(int index) {
+        return write(() -> list.remove(index));
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        return write(() -> list.remove(o));
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends E> collection) {
+        return write(() -> list.addAll(collection));
+    }
+
+    @Override
+    public boolean addAll(int index, Collection<? extends E> collection) {
+        return write(() -> list.addAll(index, collection));
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> collection) {
+        return write(() -> list.removeAll(collection));
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> collection) {
+        return write(() -> list.retainAll(collection));
+    }
+
+    @Override
+    public boolean removeIf(Predicate<? super E> filter) {
+        return write(() -> list.removeIf(filter));
+    }
+
+    @Override
+    public void replaceAll(UnaryOperator<E> operator) {
+        batch(l -> l.replaceAll(operator));
+    }
+
+    @Override
+    public void sort(Comparator<? super E> comparator) {
+        batch(l -> l.sort(comparator));
+    }
+
+    @Override
+    public void clear() {
+        write(() -> {
+            list.clear();
+            return null;
+        });
+    }
+
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        write(() -> {
+            list.subList(fromIndex, toIndex).clear();
+            return null;
+        });
+    }
+
+    @Override
+    void reset(ArrayList<E> content) {
+        write(() -> {
+            list.reset(content);
+            return null;
+        });
+    }
+
+    @Override
+    void ensureCapacity(int capacity) {
+        write(() -> {
+            list.ensureCapacity(capacity);
+            return null;
+        });
+    }
+
+    @Override
+    void touch(int index) {
+        write(() -> {
+            list.touch(index);
+            return null;
+        });
+    }
+
+    @Override
+    void batch(Consumer<? super List<E>> mutation) {
+        write(() -> {
+            mutation.accept(list);
+            return null;
+        });
+    }
+}
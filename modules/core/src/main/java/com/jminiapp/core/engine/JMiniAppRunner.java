@@ -2,9 +2,14 @@ package com.jminiapp.core.engine;
 
 import com.jminiapp.core.api.*;
 import com.jminiapp.core.engine.internal.*;
+import com.jminiapp.core.metrics.MetricsRegistry;
+import com.jminiapp.core.metrics.MetricsSink;
+import java.io.IOException;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.Executor;
 
 /**
  * Unified entry point and builder for configuring and launching JMiniApp applications.
@@ -26,9 +31,20 @@ public class JMiniAppRunner {
     // --- Configuration State ---
     private final Class<? extends JMiniApp> appClass;
     private Class<?> stateClass;
+    private StateConcurrency stateConcurrency;
     private String appName;
     private final List<JMiniFormatAdapter<?>> adapters;
+    private boolean adapterDiscovery;
     private String resourcesPath = JMiniAppConfig.DEFAULT_RESOURCES_PATH;
+    private ExportDurability exportDurability = ExportDurability.ATOMIC;
+    private String writeAheadLogFormat;
+    private Duration writeAheadLogInterval = DEFAULT_COMMIT_INTERVAL;
+    private String autosaveFormat;
+    private Executor executor;
+    private Duration autosaveInterval;
+    private MetricsSink metrics;
+
+    private static final Duration DEFAULT_COMMIT_INTERVAL = Duration.ofMillis(50);
 
     // --- Static Entry Points ---
 
@@ -69,6 +85,26 @@ public class JMiniAppRunner {
         return this;
     }
 
+    /**
+     * Sets the model class and lets the data be shared between threads.
+     *
+     * <p>The default, {@link StateConcurrency#NONE}, is right for apps that
+     * only touch the data from the main thread. See {@link StateConcurrency}
+     * for the trade-offs of the other modes.</p>
+     *
+     * @param stateClass the model class
+     * @param concurrency how the data may be shared between threads
+     * @return this runner
+     */
+    public JMiniAppRunner withState(Class<?> stateClass, StateConcurrency concurrency) {
+        if (concurrency == null) {
+            throw new IllegalArgumentException("State concurrency cannot be null");
+        }
+        this.stateClass = stateClass;
+        this.stateConcurrency = concurrency;
+        return this;
+    }
+
     public JMiniAppRunner named(String appName) {
         this.appName = appName;
         return this;
@@ -84,6 +120,131 @@ public class JMiniAppRunner {
         return this;
     }
 
+    /**
+     * Registers the adapters on the app's class path for its data type.
+     *
+     * <p>Adapters annotated with {@link JMiniAdapter} are listed in an index
+     * at build time and found without loading their classes; other
+     * {@link java.util.ServiceLoader} providers of {@link JMiniFormatAdapter}
+     * are found too. Each adapter is created on first use of its format, so
+     * unused formats cost nothing at startup. Adapters passed to
+     * {@link #withAdapters} take precedence.</p>
+     *
+     * @return this runner
+     */
+    public JMiniAppRunner withAdapterDiscovery() {
+        this.adapterDiscovery = true;
+        return this;
+    }
+
+    /**
+     * Sets how exports protect their target file against crashes.
+     *
+     * <p>Defaults to {@link ExportDurability#ATOMIC}: exports go to a temporary
+     * file that is renamed over the target once complete.</p>
+     *
+     * @param exportDurability the durability level
+     * @return this runner
+     */
+    public JMiniAppRunner withExportDurability(ExportDurability exportDurability) {
+        this.exportDurability = exportDurability;
+        return this;
+    }
+
+    /**
+     * Sets the executor running {@code importDataAsync} and {@code exportDataAsync}.
+     *
+     * <p>By default each asynchronous import or export runs on its own
+     * thread, a virtual thread where the runtime supports them.</p>
+     *
+     * @param executor the executor
+     * @return this runner
+     */
+    public JMiniAppRunner withExecutor(Executor executor) {
+        this.executor = executor;
+        return this;
+    }
+
+    /**
+     * Records timings and counts of the app's imports and exports.
+     *
+     * <p>A {@link MetricsRegistry} is also published through JMX, under
+     * {@code com.jminiapp:app=<appName>}, while the app runs. See
+     * {@link MetricsSink} for what is measured. Without metrics nothing is
+     * measured.</p>
+     *
+     * @param metrics where to record the measurements
+     * @return this runner
+     */
+    public JMiniAppRunner withMetrics(MetricsSink metrics) {
+        this.metrics = metrics;
+        return this;
+    }
+
+    /**
+     * Saves the data on a background thread after it changes.
+     *
+     * <p>Once the data changes, it is written to {@code {appName}.{format}}
+     * after {@code interval}; changes made in the meantime are saved
+     * together, and the app never waits for a save. Unsaved changes are
+     * written when the app exits.</p>
+     *
+     * <p>Autosave needs a thread-safe state: unless another mode is chosen
+     * with {@link #withState(Class, StateConcurrency)}, the state uses
+     * {@link StateConcurrency#LOCKED}.</p>
+     *
+     * @param format the format to save in
+     * @param interval how long changes may wait before being saved
+     * @return this runner
+     */
+    public JMiniAppRunner withAutosave(String format, Duration interval) {
+        if (format == null || interval == null || interval.isNegative()) {
+            throw new IllegalArgumentException("Autosave needs a format and a non-negative interval");
+        }
+        this.autosaveFormat = format;
+        this.autosaveInterval = interval;
+        return this;
+    }
+
+    /**
+     * Persists every change to the data through a write-ahead log.
+     *
+     * <p>The data is loaded from {@code {appName}.{format}} at startup (or the
+     * file is created), and changes are appended to its change log in groups
+     * every 50 ms. See {@link #withWriteAheadLog(String, Duration)}.</p>
+     *
+     * @param format the format of the data file
+     * @return this runner
+     */
+    public JMiniAppRunner withWriteAheadLog(String format) {
+        return withWriteAheadLog(format, DEFAULT_COMMIT_INTERVAL);
+    }
+
+    /**
+     * Persists every change to the data through a write-ahead log.
+     *
+     * <p>Changes wait at most {@code commitInterval} before they are written,
+     * so a crash loses at most that much work. Longer intervals group more
+     * changes per fsync.</p>
+     *
+     * <p>The log rewrites the data file on a background thread, so it needs a
+     * thread-safe state: unless another mode is chosen with
+     * {@link #withState(Class, StateConcurrency)}, the state uses
+     * {@link StateConcurrency#LOCKED}.</p>
+     *
+     * @param format the format of the data file
+     * @param commitInterval how long changes may wait before being written
+     * @return this runner
+     */
+    public JMiniAppRunner withWriteAheadLog(String format, Duration commitInterval) {
+        if (format == null || commitInterval == null || commitInterval.isNegative()) {
+            throw new IllegalArgumentException("Write-ahead log needs a format and a non-negative commit interval");
+        }
+        this.writeAheadLogFormat = format;
+        this.writeAheadLogInterval = commitInterval;
+        return this;
+    }
+
     // --- Execution Logic ---
 
     /**
@@ -96,10 +257,21 @@ public class JMiniAppRunner {
         JMiniAppConfig config = buildConfiguration();
 
         // 2. Initialize Context
-        JMiniAppContext context = createContext(config);
+        JMiniAppDefaultContext context = createContext(config);
+
+        if (metrics instanceof MetricsRegistry) {
+            ((MetricsRegistry) metrics).registerMBeans(config.getAppName());
+        }
 
         // 3. Instantiate and Start App
-        launchApp(config, context);
+        try {
+            launchApp(config, context);
+        } finally {
+            context.close();
+            if (metrics instanceof MetricsRegistry) {
+                ((MetricsRegistry) metrics).unregisterMBeans();
+            }
+        }
     }
 
     private JMiniAppConfig buildConfiguration() {
@@ -113,19 +285,49 @@ public class JMiniAppRunner {
         );
     }
 
-    private JMiniAppContext createContext(JMiniAppConfig config) {
+    private JMiniAppDefaultContext createContext(JMiniAppConfig config) {
         JMiniAppDefaultContext context = new JMiniAppDefaultContext(
             config.getAppName(),
             config.getStateClass(),
-            config.getResourcesPath()
+            config.getResourcesPath(),
+            effectiveConcurrency()
         );
 
         for (JMiniFormatAdapter<?> adapter : config.getAdapters()) {
             context.registerAdapter(adapter);
         }
+        if (adapterDiscovery) {
+            context.discoverAdapters(appClass.getClassLoader());
+        }
+        context.setExportDurability(exportDurability);
+        context.setExecutor(executor);
+        context.setMetrics(metrics);
+
+        if (writeAheadLogFormat != null) {
+            try {
+                context.enableWriteAheadLog(writeAheadLogFormat, writeAheadLogInterval);
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to load data for write-ahead log: " + e.getMessage(), e);
+            }
+        }
+        if (autosaveFormat != null) {
+            context.enableAutosave(autosaveFormat, autosaveInterval);
+        }
         return context;
     }
 
+    private StateConcurrency effectiveConcurrency() {
+        if (autosaveFormat == null && writeAheadLogFormat == null) {
+            return stateConcurrency != null ? stateConcurrency : StateConcurrency.NONE;
+        }
+        if (stateConcurrency == StateConcurrency.NONE) {
+            System.err.println("Warning: " + (autosaveFormat != null ? "autosave" : "the write-ahead log")
+                    + " needs a thread-safe state, using " + StateConcurrency.LOCKED);
+        }
+        return stateConcurrency != null && stateConcurrency != StateConcurrency.NONE
+                ? stateConcurrency : StateConcurrency.LOCKED;
+    }
+
     private void launchApp(JMiniAppConfig config, JMiniAppContext context) {
         try {
             JMiniApp app = appClass.getDeclaredConstructor(JMiniAppConfig.class)
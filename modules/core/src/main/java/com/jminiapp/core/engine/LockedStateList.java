@@ -0,0 +1,55 @@
+package com.jminiapp.core.engine;
+
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+/**
+ * {@link com.jminiapp.core.api.StateConcurrency#LOCKED} list: reads share a
+ * read lock, writes hold the write lock.
+ *
+ * @param <E> the type of elements
+ */
+final class LockedStateList<E> extends GuardedStateList<E> {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    LockedStateList(Sink sink) {
+        super(sink);
+    }
+
+    @Override
+    <R> R read(Supplier<R> action) {
+        lock.readLock().lock();
+        try {
+            return action.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    <R> R readLocked(Supplier<R> action) {
+        return read(action);
+    }
+
+    @Override
+    int readInt(IntSupplier action) {
+        lock.readLock().lock();
+        try {
+            return action.getAsInt();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    <R> R write(Supplier<R> action) {
+        lock.writeLock().lock();
+        try {
+            return action.get();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
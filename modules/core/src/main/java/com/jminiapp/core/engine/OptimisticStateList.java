@@ -0,0 +1,102 @@
+package com.jminiapp.core.engine;
+
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+/**
+ * {@link com.jminiapp.core.api.StateConcurrency#SINGLE_WRITER} list: writes
+ * hold a {@link StampedLock} exclusively, reads run optimistically without
+ * locking and are validated against the lock's stamp afterwards.
+ *
+ * <p>A read that overlaps a write may observe the working list half-way
+ * through a change (and even fail); its result is then discarded and the
+ * read is repeated under the read lock. Reads never write to shared memory,
+ * so a writer is not slowed down by any number of readers.</p>
+ *
+ * <p>StampedLock is not reentrant; reads and writes made by the writing
+ * thread itself while it holds the lock (e.g. from a {@code removeIf}
+ * predicate) run directly.</p>
+ *
+ * @param <E> the type of elements
+ */
+final class OptimisticStateList<E> extends GuardedStateList<E> {
+
+    private final StampedLock lock = new StampedLock();
+    private volatile Thread writer;
+
+    OptimisticStateList(Sink sink) {
+        super(sink);
+    }
+
+    @Override
+    <R> R read(Supplier<R> action) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                R result = action.get();
+                if (lock.validate(stamp)) {
+                    return result;
+                }
+            } catch (RuntimeException e) {
+                // Torn read; retried below
+            }
+        }
+        return readLocked(action);
+    }
+
+    @Override
+    <R> R readLocked(Supplier<R> action) {
+        if (writer == Thread.currentThread()) {
+            return action.get();
+        }
+
+        long stamp = lock.readLock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    int readInt(IntSupplier action) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                int result = action.getAsInt();
+                if (lock.validate(stamp)) {
+                    return result;
+                }
+            } catch (RuntimeException e) {
+                // Torn read; retried below
+            }
+        }
+        if (writer == Thread.currentThread()) {
+            return action.getAsInt();
+        }
+
+        stamp = lock.readLock();
+        try {
+            return action.getAsInt();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    <R> R write(Supplier<R> action) {
+        if (writer == Thread.currentThread()) {
+            return action.get();
+        }
+
+        long stamp = lock.writeLock();
+        writer = Thread.currentThread();
+        try {
+            return action.get();
+        } finally {
+            writer = null;
+            lock.unlockWrite(stamp);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.jminiapp.core.engine;
+
+/**
+ * A single modification of the data held by an {@link AppState}.
+ *
+ * <p>Changes are reported in the order they happen, with indexes relative to
+ * the list at that moment, so replaying them in order on a copy of the
+ * previous content reproduces the current content.</p>
+ */
+public final class StateChange {
+
+    /**
+     * Kind of modification.
+     */
+    public enum Type {
+        /** An element was inserted at {@link #getIndex()}. */
+        INSERT,
+        /** The element at {@link #getIndex()} was replaced (or marked as updated). */
+        UPDATE,
+        /** The element at {@link #getIndex()} was removed. */
+        DELETE,
+        /** All elements were removed. */
+        CLEAR,
+        /** The whole content was replaced, e.g. by {@link AppState#setData(java.util.List)}. */
+        RESET
+    }
+
+    private final Type type;
+    private final int index;
+    private final Object element;
+    private final Object previous;
+    private final long version;
+
+    /**
+     * Create a change record.
+     *
+     * @param type the kind of modification
+     * @param index the affected position, or -1 for CLEAR and RESET
+     * @param element the new element (INSERT, UPDATE), otherwise null
+     * @param previous the replaced or removed element (UPDATE, DELETE), otherwise null
+     */
+    public StateChange(Type type, int index, Object element, Object previous) {
+        this(type, index, element, previous, 0);
+    }
+
+    /**
+     * Create a change record with a version number.
+     *
+     * @param type the kind of modification
+     * @param index the affected position, or -1 for CLEAR and RESET
+     * @param element the new element (INSERT, UPDATE), otherwise null
+     * @param previous the replaced or removed element (UPDATE, DELETE), otherwise null
+     * @param version the version of the data after this change
+     */
+    public StateChange(Type type, int index, Object element, Object previous, long version) {
+        this.type = type;
+        this.index = index;
+        this.element = element;
+        this.previous = previous;
+        this.version = version;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public Object getElement() {
+        return element;
+    }
+
+    public Object getPrevious() {
+        return previous;
+    }
+
+    /**
+     * Get the version of the data after this change.
+     *
+     * <p>Versions count the changes of an {@link AppState}, starting at 1;
+     * records not produced by an AppState have version 0.</p>
+     *
+     * @return the version number
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    @Override
+    public String toString() {
+        return "StateChange{" + type + ", index=" + index + "}";
+    }
+}
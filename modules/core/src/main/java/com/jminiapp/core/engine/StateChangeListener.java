@@ -0,0 +1,18 @@
+package com.jminiapp.core.engine;
+
+/**
+ * Receives the modifications made to an {@link AppState}'s data.
+ *
+ * <p>Listeners are called synchronously on the thread that modified the
+ * data, right after the modification, and should return quickly.</p>
+ */
+@FunctionalInterface
+public interface StateChangeListener {
+
+    /**
+     * Called after the data has been modified.
+     *
+     * @param change the modification
+     */
+    void onChange(StateChange change);
+}
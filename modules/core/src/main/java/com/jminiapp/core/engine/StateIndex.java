@@ -0,0 +1,433 @@
+package com.jminiapp.core.engine;
+
+import com.jminiapp.core.api.IndexType;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Secondary index over the data of an {@link AppState}.
+ *
+ * <p>The index listens to the changes of the data and applies each one to
+ * its map, so keeping it current costs a hash or tree update per change.
+ * Keys are remembered per element, which lets an element changed in place
+ * (and reported through {@code set()} or {@code markUpdated()}) move from its
+ * old key to its new one. When the whole data is replaced the index is
+ * rebuilt from a snapshot, on the next lookup.</p>
+ */
+final class StateIndex implements StateChangeListener {
+
+    private final String name;
+    private final IndexType type;
+    private final Function<Object, ?> key;
+    private final Supplier<StateSnapshot<Object>> source;
+
+    // Guarded by this. A key maps to its element, or to a Bucket if shared.
+    private final Map<Object, Object> entries;
+    private final Map<Object, Object> keys = new IdentityHashMap<>();
+    private boolean stale = true;
+    private long version;
+    private long lastSeenVersion;
+
+    /**
+     * Create an index; it is built on first use.
+     *
+     * @param name the index name, for error messages
+     * @param type the kind of index
+     * @param key computes the key of an element
+     * @param source supplies a consistent copy of the data to build from
+     */
+    StateIndex(String name, IndexType type, Function<Object, ?> key, Supplier<StateSnapshot<Object>> source) {
+        this.name = name;
+        this.type = type;
+        this.key = key;
+        this.source = source;
+        this.entries = type == IndexType.SORTED ? new TreeMap<>() : new HashMap<>();
+    }
+
+    @Override
+    public synchronized void onChange(StateChange change) {
+        lastSeenVersion = change.getVersion();
+        if (stale || change.getVersion() <= version) {
+            return;
+        }
+
+        try {
+            switch (change.getType()) {
+                case INSERT:
+                    add(change.getElement());
+                    break;
+                case DELETE:
+                    remove(change.getPrevious());
+                    break;
+                case UPDATE:
+                    remove(change.getPrevious());
+                    add(change.getElement());
+                    break;
+                case CLEAR:
+                    entries.clear();
+                    keys.clear();
+                    break;
+                default:
+                    // RESET: rebuilt from the new data on the next lookup
+                    invalidate();
+                    return;
+            }
+            version = change.getVersion();
+        } catch (RuntimeException e) {
+            // A failing getter or an incomparable key: surface it at the next lookup
+            invalidate();
+        }
+    }
+
+    IndexType getType() {
+        return type;
+    }
+
+    /**
+     * Compute the key of an element, as the index does.
+     *
+     * @param element an element
+     * @return its key, or null
+     */
+    Object keyOf(Object element) {
+        return element != null ? key.apply(element) : null;
+    }
+
+    /**
+     * Check whether a key lies in a range, as {@link #findRange} does.
+     *
+     * @param value the key; null is never in range
+     * @param from the lowest key, inclusive, or null for no lower bound
+     * @param to the highest key, exclusive, or null for no upper bound
+     * @return true if the key is in the range
+     */
+    @SuppressWarnings("unchecked")
+    boolean inRange(Object value, Object from, Object to) {
+        if (value == null) {
+            return false;
+        }
+        Comparable<Object> comparable = (Comparable<Object>) value;
+        return (from == null || comparable.compareTo(from) >= 0) && (to == null || comparable.compareTo(to) < 0);
+    }
+
+    /**
+     * Get the order of elements by their key, elements without a key last.
+     *
+     * @return the comparator
+     */
+    @SuppressWarnings("unchecked")
+    Comparator<Object> keyOrder() {
+        return Comparator.comparing(element -> (Comparable<Object>) keyOf(element),
+                Comparator.nullsLast(Comparator.naturalOrder()));
+    }
+
+    /**
+     * Find the element with a key.
+     *
+     * @param value the key
+     * @return the element, or null if none has the key
+     * @throws IllegalStateException if a unique index has several elements with the key
+     */
+    Object find(Object value) {
+        refresh();
+        synchronized (this) {
+            Object found = value != null ? entries.get(value) : null;
+            if (found instanceof Bucket) {
+                if (type == IndexType.UNIQUE) {
+                    throw new IllegalStateException("Index '" + name + "' has several elements with key " + value);
+                }
+                return ((Bucket) found).first();
+            }
+            return found;
+        }
+    }
+
+    /**
+     * Find all elements with a key.
+     *
+     * @param value the key
+     * @return the elements, possibly none
+     */
+    List<Object> findAll(Object value) {
+        refresh();
+        synchronized (this) {
+            List<Object> result = new ArrayList<>();
+            if (value != null) {
+                collect(entries.get(value), result);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Find the elements whose key is in a range, in key order.
+     *
+     * @param from the lowest key, inclusive, or null for no lower bound
+     * @param to the highest key, exclusive, or null for no upper bound
+     * @return the elements, possibly none
+     * @throws UnsupportedOperationException if the index is not sorted
+     */
+    List<Object> findRange(Object from, Object to) {
+        checkSorted();
+        refresh();
+        synchronized (this) {
+            List<Object> result = new ArrayList<>();
+            for (Object found : range(from, to).values()) {
+                collect(found, result);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Pass the elements with a key to an action, stopping when it returns false.
+     *
+     * <p>The action runs with the index locked, so the caller must hold the
+     * data's read lock (see {@link AppState#scan}): changes reach the index
+     * with the data locked, so the index cannot change under the action and
+     * locks are taken in the same order.</p>
+     *
+     * @param value the key
+     * @param action takes each element and returns false to stop
+     * @return false if the action stopped, or null if the index is stale and
+     *         must be {@linkplain #refresh() refreshed} first
+     */
+    synchronized Boolean visit(Object value, Predicate<Object> action) {
+        if (stale) {
+            return null;
+        }
+        return value == null || visitEntry(entries.get(value), action);
+    }
+
+    /**
+     * Like {@link #visit}, for the elements whose key is in a range, in key order.
+     *
+     * @param from the lowest key, inclusive, or null for no lower bound
+     * @param to the highest key, exclusive, or null for no upper bound
+     * @param action takes each element and returns false to stop
+     * @return false if the action stopped, or null if the index is stale
+     * @throws UnsupportedOperationException if the index is not sorted
+     */
+    synchronized Boolean visitRange(Object from, Object to, Predicate<Object> action) {
+        checkSorted();
+        if (stale) {
+            return null;
+        }
+        for (Object found : range(from, to).values()) {
+            if (!visitEntry(found, action)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void checkSorted() {
+        if (type != IndexType.SORTED) {
+            throw new UnsupportedOperationException("Index '" + name + "' is not sorted");
+        }
+    }
+
+    private NavigableMap<Object, Object> range(Object from, Object to) {
+        NavigableMap<Object, Object> sorted = (NavigableMap<Object, Object>) entries;
+        if (from != null && to != null) {
+            return sorted.subMap(from, true, to, false);
+        } else if (from != null) {
+            return sorted.tailMap(from, true);
+        } else if (to != null) {
+            return sorted.headMap(to, false);
+        }
+        return sorted;
+    }
+
+    /**
+     * Rebuild the index if it is stale.
+     *
+     * <p>The snapshot is taken without holding the index, since changes reach
+     * the index with the data locked. If changes arrived after the snapshot
+     * was taken, it misses them and is taken again. Must not be called with
+     * the data's read lock held, which the snapshot takes.</p>
+     */
+    void refresh() {
+        while (true) {
+            synchronized (this) {
+                if (!stale) {
+                    return;
+                }
+            }
+            StateSnapshot<Object> snapshot = source.get();
+            synchronized (this) {
+                if (!stale) {
+                    return;
+                }
+                if (lastSeenVersion <= snapshot.getVersion()) {
+                    entries.clear();
+                    keys.clear();
+                    try {
+                        for (Object element : snapshot.getData()) {
+                            add(element);
+                        }
+                    } catch (RuntimeException e) {
+                        entries.clear();
+                        keys.clear();
+                        throw e;
+                    }
+                    version = snapshot.getVersion();
+                    stale = false;
+                    return;
+                }
+            }
+        }
+    }
+
+    private void invalidate() {
+        stale = true;
+        entries.clear();
+        keys.clear();
+    }
+
+    private void add(Object element) {
+        if (element == null) {
+            return;
+        }
+        Object value = key.apply(element);
+        if (value == null) {
+            return;
+        }
+        Object existing = entries.putIfAbsent(value, element);
+        if (existing instanceof Bucket) {
+            ((Bucket) existing).add(element);
+        } else if (existing != null) {
+            Bucket bucket = new Bucket();
+            bucket.add(existing);
+            bucket.add(element);
+            entries.put(value, bucket);
+        }
+        keys.put(element, value);
+    }
+
+    private void remove(Object element) {
+        if (element == null) {
+            return;
+        }
+        // The element may have changed in place: use the key it was added with
+        Object value = keys.containsKey(element) ? keys.remove(element) : key.apply(element);
+        if (value == null) {
+            return;
+        }
+        Object existing = entries.get(value);
+        if (existing == element) {
+            entries.remove(value);
+        } else if (existing instanceof Bucket) {
+            Bucket bucket = (Bucket) existing;
+            bucket.remove(element);
+            if (bucket.size() == 1) {
+                entries.put(value, bucket.first());
+            }
+        }
+    }
+
+    private static void collect(Object found, List<Object> result) {
+        visitEntry(found, result::add);
+    }
+
+    private static boolean visitEntry(Object found, Predicate<Object> action) {
+        if (found instanceof Bucket) {
+            return ((Bucket) found).visit(action);
+        }
+        return found == null || action.test(found);
+    }
+
+    /**
+     * Elements sharing a key, in the order they were added.
+     *
+     * <p>Elements are linked in order and found by identity, so removing one
+     * does not scan the bucket. An element in the data several times is kept
+     * once, with a count.</p>
+     */
+    private static final class Bucket {
+        private final Map<Object, Node> nodes = new IdentityHashMap<>();
+        private Node head;
+        private Node tail;
+        private int size;
+
+        void add(Object element) {
+            Node node = nodes.get(element);
+            if (node != null) {
+                node.count++;
+            } else {
+                node = new Node(element);
+                node.previous = tail;
+                if (tail != null) {
+                    tail.next = node;
+                } else {
+                    head = node;
+                }
+                tail = node;
+                nodes.put(element, node);
+            }
+            size++;
+        }
+
+        void remove(Object element) {
+            Node node = nodes.get(element);
+            if (node == null) {
+                return;
+            }
+            size--;
+            if (--node.count > 0) {
+                return;
+            }
+            nodes.remove(element);
+            if (node.previous != null) {
+                node.previous.next = node.next;
+            } else {
+                head = node.next;
+            }
+            if (node.next != null) {
+                node.next.previous = node.previous;
+            } else {
+                tail = node.previous;
+            }
+        }
+
+        int size() {
+            return size;
+        }
+
+        Object first() {
+            return head.element;
+        }
+
+        boolean visit(Predicate<Object> action) {
+            for (Node node = head; node != null; node = node.next) {
+                for (int i = 0; i < node.count; i++) {
+                    if (!action.test(node.element)) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+    }
+
+    private static final class Node {
+        private final Object element;
+        private int count = 1;
+        private Node previous;
+        private Node next;
+
+        Node(Object element) {
+            this.element = element;
+        }
+    }
+}
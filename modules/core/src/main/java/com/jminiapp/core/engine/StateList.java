@@ -0,0 +1,106 @@
+package com.jminiapp.core.engine;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+import com.jminiapp.core.api.StateConcurrency;
+
+/**
+ * List handed out by {@link AppState#getData()}: reports every modification
+ * to its owner and implements one {@link StateConcurrency} mode.
+ *
+ * @param <E> the type of elements
+ */
+abstract class StateList<E> extends AbstractList<E> implements RandomAccess {
+
+    /**
+     * Receives modifications without allocating a change record, so the
+     * owner only pays for one when somebody needs it.
+     *
+     * <p>Called while the list is locked against other writers, so changes
+     * arrive in the order they were applied. Implementations must not call
+     * back into the list.</p>
+     */
+    interface Sink {
+        void changed(StateChange.Type type, int index, Object element, Object previous);
+    }
+
+    /**
+     * Create the list for a concurrency mode.
+     *
+     * @param concurrency the mode
+     * @param sink the receiver of modifications
+     * @param <E> the type of elements
+     * @return a new empty list
+     */
+    static <E> StateList<E> create(StateConcurrency concurrency, Sink sink) {
+        switch (concurrency) {
+            case COPY_ON_WRITE:
+                return new CopyOnWriteStateList<>(sink);
+            case LOCKED:
+                return new LockedStateList<>(sink);
+            case SINGLE_WRITER:
+                return new OptimisticStateList<>(sink);
+            case NONE:
+            default:
+                return new TrackedList<>(sink);
+        }
+    }
+
+    /**
+     * Replace the whole content, reporting a single RESET.
+     *
+     * @param content the new content (not copied)
+     */
+    abstract void reset(ArrayList<E> content);
+
+    /**
+     * Pre-size the list for a number of elements.
+     *
+     * @param capacity the minimum capacity
+     */
+    abstract void ensureCapacity(int capacity);
+
+    /**
+     * Report that the element at a position changed in place.
+     *
+     * @param index the position of the element
+     */
+    abstract void touch(int index);
+
+    /**
+     * Take a consistent copy of the content.
+     *
+     * @param version supplies the owner's version, read atomically with the content
+     * @return the snapshot
+     */
+    abstract StateSnapshot<E> snapshot(LongSupplier version);
+
+    /**
+     * Run a read-only action over the content without copying it.
+     *
+     * <p>The action sees a consistent, unmodifiable view; except in
+     * copy-on-write mode, writers wait until it returns, so it must not
+     * modify the list.</p>
+     *
+     * @param action the action
+     * @param <R> the result type
+     * @return the action's result
+     */
+    abstract <R> R scan(Function<? super List<E>, R> action);
+
+    /**
+     * Apply several modifications as one atomic step.
+     *
+     * <p>The list passed to the mutation must only be used inside it. Other
+     * threads see either none or all of the modifications.</p>
+     *
+     * @param mutation the modifications to apply
+     */
+    abstract void batch(Consumer<? super List<E>> mutation);
+}
@@ -0,0 +1,537 @@
+package com.jminiapp.core.engine;
+
+import com.jminiapp.core.api.IndexType;
+import com.jminiapp.core.api.Query;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * {@link Query} over the data of an {@link AppState}.
+ *
+ * <p>A query is a source and a list of steps. The source is either a scan of
+ * the data, done in place under the state's read lock, or an index lookup.
+ * Conditions and orderings on an index that come before any other step
+ * change the source instead of being added as steps, since conditions can be
+ * applied in any order.</p>
+ *
+ * <p>Running a query pushes the source's elements through a chain of
+ * {@link Sink}s built from the steps. A sink returns false once it wants no
+ * more elements, which stops the source early; sorting collects its input
+ * and passes it on in {@link Sink#end()}. Index sources push straight from
+ * the index's map under the state's read lock, so a page of a large index
+ * only visits the entries up to the page's end.</p>
+ *
+ * @param <T> the type of the query's results
+ */
+final class StateQuery<T> implements Query<T> {
+
+    private enum SourceKind { SCAN, EQUAL, RANGE, ORDERED }
+
+    private final AppState state;
+    private final SourceKind kind;
+    private final StateIndex index;
+    private final Object from;
+    private final Object to;
+    private final List<Step> steps;
+    private final boolean projected;
+
+    StateQuery(AppState state) {
+        this(state, SourceKind.SCAN, null, null, null, Collections.emptyList(), false);
+    }
+
+    private StateQuery(AppState state, SourceKind kind, StateIndex index, Object from, Object to,
+                       List<Step> steps, boolean projected) {
+        this.state = state;
+        this.kind = kind;
+        this.index = index;
+        this.from = from;
+        this.to = to;
+        this.steps = steps;
+        this.projected = projected;
+    }
+
+    // --- Building ---
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Query<T> where(Predicate<? super T> condition) {
+        if (condition == null) {
+            throw new IllegalArgumentException("Condition cannot be null");
+        }
+        return then(new Filter((Predicate<Object>) condition), projected);
+    }
+
+    @Override
+    public Query<T> where(String index, Object key) {
+        StateIndex target = indexStep(index);
+        if (onlyConditions() && (kind == SourceKind.SCAN || (kind == SourceKind.ORDERED && this.index == target))) {
+            return from(SourceKind.EQUAL, target, key, null);
+        }
+        return then(new Filter(element -> key != null && key.equals(target.keyOf(element))), false);
+    }
+
+    @Override
+    public Query<T> whereBetween(String index, Object from, Object to) {
+        StateIndex target = sortedIndexStep(index);
+        if (onlyConditions() && (kind == SourceKind.SCAN || (kind == SourceKind.ORDERED && this.index == target))) {
+            return from(SourceKind.RANGE, target, from, to);
+        }
+        return then(new Filter(element -> target.inRange(target.keyOf(element), from, to)), false);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Query<T> orderBy(Comparator<? super T> order) {
+        if (order == null) {
+            throw new IllegalArgumentException("Order cannot be null");
+        }
+        return then(new Sort((Comparator<Object>) order), projected);
+    }
+
+    @Override
+    public Query<T> orderBy(String index) {
+        StateIndex target = sortedIndexStep(index);
+        if (onlyConditions()) {
+            if (kind == SourceKind.SCAN) {
+                return from(SourceKind.ORDERED, target, null, null);
+            }
+            if (this.index == target) {
+                // Index results already come in key order
+                return this;
+            }
+        }
+        return then(new Sort(target.keyOrder()), false);
+    }
+
+    @Override
+    public Query<T> offset(int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Offset cannot be negative");
+        }
+        return then(new Skip(count), projected);
+    }
+
+    @Override
+    public Query<T> limit(int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Limit cannot be negative");
+        }
+        return then(new Limit(count), projected);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <R> Query<R> select(Function<? super T, ? extends R> projection) {
+        if (projection == null) {
+            throw new IllegalArgumentException("Projection cannot be null");
+        }
+        return (Query<R>) then(new Project((Function<Object, Object>) projection), true);
+    }
+
+    private StateQuery<T> then(Step step, boolean projected) {
+        List<Step> next = new ArrayList<>(steps.size() + 1);
+        next.addAll(steps);
+        next.add(step);
+        return new StateQuery<>(state, kind, index, from, to, next, projected);
+    }
+
+    private StateQuery<T> from(SourceKind kind, StateIndex index, Object from, Object to) {
+        return new StateQuery<>(state, kind, index, from, to, steps, projected);
+    }
+
+    private boolean onlyConditions() {
+        for (Step step : steps) {
+            if (!(step instanceof Filter)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private StateIndex indexStep(String name) {
+        if (projected) {
+            throw new IllegalStateException("Index steps apply to the data's elements and must come before select()");
+        }
+        return state.indexNamed(name);
+    }
+
+    private StateIndex sortedIndexStep(String name) {
+        StateIndex target = indexStep(name);
+        if (target.getType() != IndexType.SORTED) {
+            throw new UnsupportedOperationException("Index '" + name + "' is not sorted");
+        }
+        return target;
+    }
+
+    // --- Running ---
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<T> list() {
+        List<Object> results = new ArrayList<>();
+        run(new Sink() {
+            @Override
+            boolean accept(Object value) {
+                results.add(value);
+                return true;
+            }
+        });
+        return (List<T>) results;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T first() {
+        Object[] result = new Object[1];
+        run(new Sink() {
+            @Override
+            boolean accept(Object value) {
+                result[0] = value;
+                return false;
+            }
+        });
+        return (T) result[0];
+    }
+
+    @Override
+    public long count() {
+        if (kind == SourceKind.SCAN && steps.isEmpty()) {
+            return state.size();
+        }
+        long[] count = new long[1];
+        run(new Sink() {
+            @Override
+            boolean accept(Object value) {
+                count[0]++;
+                return true;
+            }
+        });
+        return count[0];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(Consumer<? super T> action) {
+        run(new Sink() {
+            @Override
+            boolean accept(Object value) {
+                action.accept((T) value);
+                return true;
+            }
+        });
+    }
+
+    private void run(Sink terminal) {
+        Sink sink = terminal;
+        for (int i = steps.size() - 1; i >= 0; i--) {
+            sink = steps.get(i).wrap(sink, resultsNeeded(i + 1));
+        }
+
+        if (kind == SourceKind.SCAN) {
+            Sink all = sink;
+            state.scan(elements -> push(elements, all));
+        } else {
+            pushIndexed(sink);
+        }
+        sink.end();
+    }
+
+    /**
+     * Push the elements of an index source, stopping as soon as the sink
+     * wants no more.
+     */
+    private void pushIndexed(Sink sink) {
+        Boolean pushed;
+        do {
+            // Rebuilding takes a snapshot, so it is done before taking the read lock
+            index.refresh();
+            pushed = state.scan(elements -> {
+                Boolean done = kind == SourceKind.EQUAL
+                        ? index.visit(from, sink::accept)
+                        : index.visitRange(from, to, sink::accept);
+                if (kind == SourceKind.ORDERED && Boolean.TRUE.equals(done)) {
+                    // Elements without a key are not in the index and come last
+                    for (int i = 0; i < elements.size(); i++) {
+                        Object element = elements.get(i);
+                        if (element != null && index.keyOf(element) == null && !sink.accept(element)) {
+                            break;
+                        }
+                    }
+                }
+                return done;
+            });
+            // Null: the data was replaced since the refresh and nothing was pushed
+        } while (pushed == null);
+    }
+
+    private static boolean push(List<?> elements, Sink sink) {
+        for (int i = 0; i < elements.size(); i++) {
+            if (!sink.accept(elements.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Get how many results the steps from a position on take at most from
+     * their input, when only offsets and a limit follow.
+     *
+     * @return the count, or -1 if all results may be needed
+     */
+    private int resultsNeeded(int position) {
+        long skipped = 0;
+        for (int i = position; i < steps.size(); i++) {
+            Step step = steps.get(i);
+            if (step instanceof Skip) {
+                skipped += ((Skip) step).count;
+            } else if (step instanceof Limit) {
+                return (int) Math.min(Integer.MAX_VALUE, skipped + ((Limit) step).count);
+            } else {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    // --- Pipeline ---
+
+    /**
+     * Receives the values flowing through a running query.
+     */
+    private abstract static class Sink {
+
+        /**
+         * Take a value.
+         *
+         * @return false if no more values are wanted
+         */
+        abstract boolean accept(Object value);
+
+        /**
+         * Called once after the last value.
+         */
+        void end() {
+        }
+    }
+
+    private abstract static class Step {
+
+        /**
+         * Create the sink running this step.
+         *
+         * @param downstream the sink of the next step
+         * @param needed the most values the following steps use, or -1
+         */
+        abstract Sink wrap(Sink downstream, int needed);
+    }
+
+    private static final class Filter extends Step {
+        private final Predicate<Object> condition;
+
+        Filter(Predicate<Object> condition) {
+            this.condition = condition;
+        }
+
+        @Override
+        Sink wrap(Sink downstream, int needed) {
+            return new Sink() {
+                @Override
+                boolean accept(Object value) {
+                    return !condition.test(value) || downstream.accept(value);
+                }
+
+                @Override
+                void end() {
+                    downstream.end();
+                }
+            };
+        }
+    }
+
+    private static final class Project extends Step {
+        private final Function<Object, Object> projection;
+
+        Project(Function<Object, Object> projection) {
+            this.projection = projection;
+        }
+
+        @Override
+        Sink wrap(Sink downstream, int needed) {
+            return new Sink() {
+                @Override
+                boolean accept(Object value) {
+                    return downstream.accept(projection.apply(value));
+                }
+
+                @Override
+                void end() {
+                    downstream.end();
+                }
+            };
+        }
+    }
+
+    private static final class Skip extends Step {
+        private final int count;
+
+        Skip(int count) {
+            this.count = count;
+        }
+
+        @Override
+        Sink wrap(Sink downstream, int needed) {
+            return new Sink() {
+                private int skipped;
+
+                @Override
+                boolean accept(Object value) {
+                    if (skipped < count) {
+                        skipped++;
+                        return true;
+                    }
+                    return downstream.accept(value);
+                }
+
+                @Override
+                void end() {
+                    downstream.end();
+                }
+            };
+        }
+    }
+
+    private static final class Limit extends Step {
+        private final int count;
+
+        Limit(int count) {
+            this.count = count;
+        }
+
+        @Override
+        Sink wrap(Sink downstream, int needed) {
+            return new Sink() {
+                private int taken;
+
+                @Override
+                boolean accept(Object value) {
+                    if (taken >= count) {
+                        return false;
+                    }
+                    taken++;
+                    return downstream.accept(value) && taken < count;
+                }
+
+                @Override
+                void end() {
+                    downstream.end();
+                }
+            };
+        }
+    }
+
+    private static final class Sort extends Step {
+        private final Comparator<Object> order;
+
+        Sort(Comparator<Object> order) {
+            this.order = order;
+        }
+
+        @Override
+        Sink wrap(Sink downstream, int needed) {
+            return needed >= 0 ? new TopSink(downstream, needed) : new SortSink(downstream);
+        }
+
+        /**
+         * Sorts everything it receives.
+         */
+        private final class SortSink extends Sink {
+            private final Sink downstream;
+            private final List<Object> values = new ArrayList<>();
+
+            SortSink(Sink downstream) {
+                this.downstream = downstream;
+            }
+
+            @Override
+            boolean accept(Object value) {
+                values.add(value);
+                return true;
+            }
+
+            @Override
+            void end() {
+                // List.sort is stable
+                values.sort(order);
+                push(values, downstream);
+                downstream.end();
+            }
+        }
+
+        /**
+         * Keeps only the first {@code size} values in order, in a heap whose
+         * top is the last value kept. Arrival numbers keep equal values in
+         * arrival order.
+         */
+        private final class TopSink extends Sink {
+            private final Sink downstream;
+            private final int size;
+            private final Comparator<Ranked> ranking = (a, b) -> {
+                int result = order.compare(a.value, b.value);
+                return result != 0 ? result : Long.compare(a.arrival, b.arrival);
+            };
+            private final PriorityQueue<Ranked> kept;
+            private long arrivals;
+
+            TopSink(Sink downstream, int size) {
+                this.downstream = downstream;
+                this.size = size;
+                this.kept = new PriorityQueue<>(Math.max(1, Math.min(size, 1024)), ranking.reversed());
+            }
+
+            @Override
+            boolean accept(Object value) {
+                if (size == 0) {
+                    return false;
+                }
+                Ranked ranked = new Ranked(value, arrivals++);
+                if (kept.size() < size) {
+                    kept.add(ranked);
+                } else if (ranking.compare(ranked, kept.peek()) < 0) {
+                    kept.poll();
+                    kept.add(ranked);
+                }
+                return true;
+            }
+
+            @Override
+            void end() {
+                List<Ranked> sorted = new ArrayList<>(kept);
+                sorted.sort(ranking);
+                for (Ranked ranked : sorted) {
+                    if (!downstream.accept(ranked.value)) {
+                        break;
+                    }
+                }
+                downstream.end();
+            }
+        }
+    }
+
+    private static final class Ranked {
+        final Object value;
+        final long arrival;
+
+        Ranked(Object value, long arrival) {
+            this.value = value;
+            this.arrival = arrival;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.jminiapp.core.engine;
+
+import java.util.List;
+
+/**
+ * Consistent, read-only copy of the data of an {@link AppState}, tagged with
+ * the version it was taken at.
+ *
+ * <p>Exports write a snapshot so other threads can keep changing the data
+ * meanwhile, then pass its version to {@link AppState#markSaved(long)}.</p>
+ *
+ * @param <T> the type of elements
+ */
+public final class StateSnapshot<T> {
+
+    private final List<T> data;
+    private final long version;
+
+    StateSnapshot(List<T> data, long version) {
+        this.data = data;
+        this.version = version;
+    }
+
+    /**
+     * Get the data as it was when the snapshot was taken.
+     *
+     * @return an unmodifiable list
+     */
+    public List<T> getData() {
+        return data;
+    }
+
+    /**
+     * Get the version of the data the snapshot holds.
+     *
+     * @return the number of changes made before the snapshot
+     */
+    public long getVersion() {
+        return version;
+    }
+}
@@ -0,0 +1,232 @@
+package com.jminiapp.core.engine;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * ArrayList-backed list that reports every modification to its owner.
+ *
+ * <p>This is the list handed out by {@link AppState#getData()} in
+ * {@link com.jminiapp.core.api.StateConcurrency#NONE} mode, so changes made
+ * through it (by the app or by import strategies) are tracked. It has no
+ * synchronization; the thread-safe modes use it as their working list.
+ * Changes to the elements themselves are not visible here; callers signal
+ * those with {@code set(index, element)}.</p>
+ *
+ * @param <E> the type of elements
+ */
+class TrackedList<E> extends StateList<E> {
+
+    private final Sink sink;
+    private ArrayList<E> elements;
+
+    TrackedList(Sink sink) {
+        this(sink, new ArrayList<>());
+    }
+
+    TrackedList(Sink sink, ArrayList<E> elements) {
+        this.sink = sink;
+        this.elements = elements;
+    }
+
+    @Override
+    void reset(ArrayList<E> content) {
+        modCount++;
+        elements = content;
+        sink.changed(StateChange.Type.RESET, -1, null, null);
+    }
+
+    @Override
+    void ensureCapacity(int capacity) {
+        elements.ensureCapacity(capacity);
+    }
+
+    @Override
+    void touch(int index) {
+        E element = elements.get(index);
+        sink.changed(StateChange.Type.UPDATE, index, element, element);
+    }
+
+    @Override
+    StateSnapshot<E> snapshot(LongSupplier version) {
+        // Single-threaded: a view is as good as a copy
+        return new StateSnapshot<>(Collections.unmodifiableList(elements), version.getAsLong());
+    }
+
+    @Override
+    <R> R scan(Function<? super List<E>, R> action) {
+        return action.apply(Collections.unmodifiableList(elements));
+    }
+
+    @Override
+    void batch(Consumer<? super List<E>> mutation) {
+        mutation.accept(this);
+    }
+
+    /**
+     * Get the backing list, for owners that need to copy it.
+     */
+    ArrayList<E> elements() {
+        return elements;
+    }
+
+    @Override
+    public E get(int index) {
+        return elements.get(index);
+    }
+
+    @Override
+    public int size() {
+        return elements.size();
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        return elements.indexOf(o);
+    }
+
+    @Override
+    public int lastIndexOf(Object o) {
+        return elements.lastIndexOf(o);
+    }
+
+    @Override
+    public Object[] toArray() {
+        return elements.toArray();
+    }
+
+    @Override
+    public <T> T[] toArray(T[] a) {
+        return elements.toArray(a);
+    }
+
+    @Override
+    public E set(int index, E element) {
+        E previous = elements.set(index, element);
+        sink.changed(StateChange.Type.UPDATE, index, element, previous);
+        return previous;
+    }
+
+    @Override
+    public boolean add(E element) {
+        int index = elements.size();
+        modCount++;
+        elements.add(element);
+        sink.changed(StateChange.Type.INSERT, index, element, null);
+        return true;
+    }
+
+    @Override
+    public void add(int index, E element) {
+        modCount++;
+        elements.add(index, element);
+        sink.changed(StateChange.Type.INSERT, index, element, null);
+    }
+
+    @Override
+    public E remove(int index) {
+        modCount++;
+        E previous = elements.remove(index);
+        sink.changed(StateChange.Type.DELETE, index, null, previous);
+        return previous;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends E> collection) {
+        return addAll(elements.size(), collection);
+    }
+
+    @Override
+    public boolean addAll(int index, Collection<? extends E> collection) {
+        List<E> added = new ArrayList<>(collection);
+        if (added.isEmpty()) {
+            return false;
+        }
+        modCount++;
+        elements.addAll(index, added);
+        for (int i = 0; i < added.size(); i++) {
+            sink.changed(StateChange.Type.INSERT, index + i, added.get(i), null);
+        }
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        modCount++;
+        elements.clear();
+        sink.changed(StateChange.Type.CLEAR, -1, null, null);
+    }
+
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        List<E> range = elements.subList(fromIndex, toIndex);
+        List<E> removed = new ArrayList<>(range);
+        modCount++;
+        range.clear();
+        for (E previous : removed) {
+            sink.changed(StateChange.Type.DELETE, fromIndex, null, previous);
+        }
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> collection) {
+        Objects.requireNonNull(collection);
+        return removeIf(collection::contains);
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> collection) {
+        Objects.requireNonNull(collection);
+        return removeIf(e -> !collection.contains(e));
+    }
+
+    /**
+     * Remove the matching elements in one pass over the backing list.
+     *
+     * <p>Each removed element is reported as a DELETE at the index it had
+     * when the elements before it were removed, as if removed one by one.</p>
+     */
+    @Override
+    public boolean removeIf(Predicate<? super E> filter) {
+        Objects.requireNonNull(filter);
+        // Test every element first, so a failing filter leaves the list unchanged
+        int size = elements.size();
+        BitSet matches = new BitSet(size);
+        for (int i = 0; i < size; i++) {
+            if (filter.test(elements.get(i))) {
+                matches.set(i);
+            }
+        }
+        if (matches.isEmpty()) {
+            return false;
+        }
+
+        List<E> removed = new ArrayList<>(matches.cardinality());
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            E element = elements.get(i);
+            if (matches.get(i)) {
+                removed.add(element);
+            } else {
+                elements.set(kept++, element);
+            }
+        }
+        modCount++;
+        elements.subList(kept, size).clear();
+
+        int count = 0;
+        for (int i = matches.nextSetBit(0); i >= 0; i = matches.nextSetBit(i + 1)) {
+            sink.changed(StateChange.Type.DELETE, i - count, null, removed.get(count));
+            count++;
+        }
+        return true;
+    }
+}
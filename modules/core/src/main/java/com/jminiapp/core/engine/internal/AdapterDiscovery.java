@@ -0,0 +1,227 @@
+package com.jminiapp.core.engine.internal;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import com.jminiapp.core.api.JMiniAdapter;
+import com.jminiapp.core.api.JMiniFormatAdapter;
+
+/**
+ * Finds the format adapters on a class path.
+ *
+ * <p>Adapters come from two places:</p>
+ * <ul>
+ *   <li>the {@value #INDEX} files written at build time for
+ *       {@link JMiniAdapter} classes, which give the format and data type
+ *       of each adapter without loading its class;</li>
+ *   <li>{@link ServiceLoader} providers of {@link JMiniFormatAdapter} not in
+ *       an index. Their classes are loaded to find their data type; those
+ *       without {@link JMiniAdapter} are also created to ask their format.</li>
+ * </ul>
+ *
+ * <p>Only adapters for the app's data type are registered, and each is
+ * created on first use of its format.</p>
+ */
+public final class AdapterDiscovery {
+
+    /**
+     * The index of annotated adapters, relative to the class path.
+     */
+    public static final String INDEX = "META-INF/jminiapp/adapters";
+
+    /**
+     * The data type in the index of adapters that do not name a class.
+     */
+    public static final String ANY_STATE = "*";
+
+    private AdapterDiscovery() {
+    }
+
+    /**
+     * Register the adapters found on a class path for an app.
+     *
+     * <p>Formats the app already has an adapter for keep it. When several
+     * adapters are found for one format, the first one is used.</p>
+     *
+     * @param registry the registry to add the adapters to
+     * @param appName the name of the mini-app
+     * @param stateClass the app's data type, or null to take adapters for any type
+     * @param loader the class loader to search
+     * @return the formats registered
+     */
+    static List<String> discover(AdapterRegistry registry, String appName, Class<?> stateClass, ClassLoader loader) {
+        Map<String, Found> found = new LinkedHashMap<>();
+        Set<String> indexed = new HashSet<>();
+        readIndexes(loader, stateClass, found, indexed);
+        loadServices(loader, stateClass, found, indexed);
+
+        List<String> registered = new ArrayList<>();
+        for (Map.Entry<String, Found> entry : found.entrySet()) {
+            if (!registry.supportsFormat(appName, entry.getKey())) {
+                registry.registerAdapter(appName, entry.getKey(), entry.getValue().factory);
+                registered.add(entry.getKey());
+            }
+        }
+        return registered;
+    }
+
+    private static void readIndexes(ClassLoader loader, Class<?> stateClass, Map<String, Found> found, Set<String> indexed) {
+        Enumeration<URL> indexes;
+        try {
+            indexes = loader.getResources(INDEX);
+        } catch (IOException e) {
+            System.err.println("Warning: failed to list adapter indexes: " + e.getMessage());
+            return;
+        }
+        while (indexes.hasMoreElements()) {
+            URL index = indexes.nextElement();
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(index.openStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    line = line.trim();
+                    if (line.isEmpty() || line.startsWith("#")) {
+                        continue;
+                    }
+                    String[] parts = line.split("\\s+");
+                    if (parts.length != 3) {
+                        System.err.println("Warning: ignoring malformed line in " + index + ": " + line);
+                        continue;
+                    }
+                    String className = parts[2];
+                    indexed.add(className);
+                    if (accepts(parts[1], stateClass)) {
+                        add(found, parts[0], className,
+                                () -> AdapterRegistry.instantiateAdapter(className, loader));
+                    }
+                }
+            } catch (IOException e) {
+                System.err.println("Warning: failed to read adapter index " + index + ": " + e.getMessage());
+            }
+        }
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static void loadServices(ClassLoader loader, Class<?> stateClass, Map<String, Found> found, Set<String> indexed) {
+        Iterator<ServiceLoader.Provider<JMiniFormatAdapter>> providers =
+                ServiceLoader.load(JMiniFormatAdapter.class, loader).stream().iterator();
+        while (true) {
+            try {
+                if (!providers.hasNext()) {
+                    return;
+                }
+                ServiceLoader.Provider<JMiniFormatAdapter> provider = providers.next();
+                Class<? extends JMiniFormatAdapter> type = provider.type();
+                if (indexed.contains(type.getName()) || !accepts(stateOf(type), stateClass)) {
+                    continue;
+                }
+                JMiniAdapter annotation = type.getAnnotation(JMiniAdapter.class);
+                if (annotation != null) {
+                    add(found, annotation.value(), type.getName(), () -> provider.get());
+                } else {
+                    JMiniFormatAdapter<?> adapter = provider.get();
+                    add(found, adapter.getFormatName(), type.getName(), () -> adapter);
+                }
+            } catch (ServiceConfigurationError e) {
+                // The iterator moves on to the next provider
+                System.err.println("Warning: failed to load adapter service: " + e.getMessage());
+            }
+        }
+    }
+
+    private static boolean accepts(String state, Class<?> stateClass) {
+        return stateClass == null || ANY_STATE.equals(state) || state.equals(stateClass.getName());
+    }
+
+    private static void add(Map<String, Found> found, String format, String className,
+                            Supplier<? extends JMiniFormatAdapter<?>> factory) {
+        String key = format.toLowerCase(Locale.ROOT);
+        Found first = found.get(key);
+        if (first == null) {
+            found.put(key, new Found(className, factory));
+        } else if (!first.className.equals(className)) {
+            System.err.println("Warning: several adapters for format '" + key + "', using " + first.className
+                    + " and ignoring " + className);
+        }
+    }
+
+    /**
+     * Get the data type an adapter class handles, as the index names it.
+     *
+     * @param type the adapter class
+     * @return the binary name of the type, or {@link #ANY_STATE} if it is not a class
+     */
+    private static String stateOf(Class<?> type) {
+        Type argument = adapterArgument(type);
+        return argument instanceof Class ? ((Class<?>) argument).getName() : ANY_STATE;
+    }
+
+    /**
+     * Find the type argument a type gives to {@code JMiniFormatAdapter}.
+     *
+     * @param type the type to search
+     * @return the type argument, a type variable if the interface is used
+     *         raw, or null if the type does not implement it
+     */
+    private static Type adapterArgument(Type type) {
+        Class<?> raw = type instanceof ParameterizedType ? (Class<?>) ((ParameterizedType) type).getRawType()
+                : type instanceof Class ? (Class<?>) type : null;
+        if (raw == null || !JMiniFormatAdapter.class.isAssignableFrom(raw)) {
+            return null;
+        }
+        if (raw == JMiniFormatAdapter.class) {
+            return type instanceof ParameterizedType
+                    ? ((ParameterizedType) type).getActualTypeArguments()[0]
+                    : JMiniFormatAdapter.class.getTypeParameters()[0];
+        }
+
+        Type argument = null;
+        for (Type parent : raw.getGenericInterfaces()) {
+            argument = adapterArgument(parent);
+            if (argument != null) {
+                break;
+            }
+        }
+        if (argument == null) {
+            argument = adapterArgument(raw.getGenericSuperclass());
+        }
+        // A type variable of this type: take the argument given to it, e.g. CSVAdapter<Task>
+        if (argument instanceof TypeVariable && type instanceof ParameterizedType) {
+            TypeVariable<?>[] variables = raw.getTypeParameters();
+            for (int i = 0; i < variables.length; i++) {
+                if (variables[i].equals(argument)) {
+                    return ((ParameterizedType) type).getActualTypeArguments()[i];
+                }
+            }
+        }
+        return argument;
+    }
+
+    private static final class Found {
+        private final String className;
+        private final Supplier<? extends JMiniFormatAdapter<?>> factory;
+
+        Found(String className, Supplier<? extends JMiniFormatAdapter<?>> factory) {
+            this.className = className;
+            this.factory = factory;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.jminiapp.core.engine.internal;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for an adapter reading a file.
+ */
+@Name("com.jminiapp.AdapterRead")
+@Label("Adapter Read")
+@Category("JMiniApp")
+@Description("A file parsed by a format adapter")
+final class AdapterReadEvent extends Event {
+
+    @Label("Path")
+    String path;
+
+    @Label("Format")
+    String format;
+
+    @Label("Adapter")
+    Class<?> adapter;
+
+    @Label("Mode")
+    @Description("The import mode; STREAMING and MAPPED reads include merging each record")
+    String mode;
+
+    @Label("Records")
+    long records;
+
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+}
@@ -1,6 +1,7 @@
 package com.jminiapp.core.engine.internal;
 
 import java.util.*;
+import java.util.function.Supplier;
 
 import com.jminiapp.core.api.JMiniFormatAdapter;
 
@@ -14,8 +15,14 @@ import com.jminiapp.core.api.JMiniFormatAdapter;
  *   <li>Adapter lookup by app name and format</li>
  *   <li>Query of supported formats per app</li>
  *   <li>Adapter instantiation via reflection</li>
+ *   <li>Adapters created on first use of their format</li>
  * </ul>
  *
+ * <p>Formats are case-insensitive. The registry is safe to use from several
+ * threads: registrations publish a new immutable snapshot, and lookups read
+ * the current one without locking or allocating, so they cost about as
+ * much as a hash map lookup however often imports run.</p>
+ *
  * <p>Example usage:</p>
  * <pre>
  * AdapterRegistry registry = new AdapterRegistry();
@@ -27,13 +34,13 @@ import com.jminiapp.core.api.JMiniFormatAdapter;
  */
 public class AdapterRegistry {
 
-    private final Map<String, Map<String, JMiniFormatAdapter<?>>> adapters;
+    // Immutable; replaced as a whole on every change
+    private volatile Map<String, Formats> apps = Collections.emptyMap();
 
     /**
      * Create a new AdapterRegistry.
      */
     public AdapterRegistry() {
-        this.adapters = new HashMap<>();
     }
 
     /**
@@ -48,10 +55,7 @@ public class AdapterRegistry {
      * @throws IllegalArgumentException if the adapter class cannot be instantiated
      */
     public void registerAdapter(String appName, String format, String adapterClassName) {
-        JMiniFormatAdapter<?> adapter = instantiateAdapter(adapterClassName);
-
-        adapters.computeIfAbsent(appName, k -> new HashMap<>())
-                .put(format.toLowerCase(), adapter);
+        registerAdapter(appName, format, instantiateAdapter(adapterClassName));
     }
 
     /**
@@ -64,8 +68,40 @@ public class AdapterRegistry {
      * @param adapter the adapter instance
      */
     public void registerAdapter(String appName, String format, JMiniFormatAdapter<?> adapter) {
-        adapters.computeIfAbsent(appName, k -> new HashMap<>())
-                .put(format.toLowerCase(), adapter);
+        register(appName, format, adapter);
+    }
+
+    /**
+     * Register an adapter to be created on first use of its format.
+     *
+     * <p>The factory is called once, by the first {@link #getAdapter} for the
+     * format; {@link #supportsFormat} and {@link #getSupportedFormats} do not
+     * call it. If it throws, the next lookup calls it again.</p>
+     *
+     * @param appName the name of the mini-app
+     * @param format the format name
+     * @param factory creates the adapter
+     */
+    public void registerAdapter(String appName, String format, Supplier<? extends JMiniFormatAdapter<?>> factory) {
+        register(appName, format, new LazyAdapter(factory));
+    }
+
+    // adapter is a JMiniFormatAdapter or a LazyAdapter
+    private synchronized void register(String appName, String format, Object adapter) {
+        Map<String, Object> entries = new LinkedHashMap<>();
+        Formats current = apps.get(appName);
+        if (current != null) {
+            entries.putAll(current.entries);
+        }
+        String key = format.toLowerCase(Locale.ROOT);
+        // Lookups ignore case, which also matches some names that lower-case
+        // differently (e.g. "bin" and "b\u0131n"): replace those too
+        entries.keySet().removeIf(existing -> !existing.equals(key) && existing.equalsIgnoreCase(key));
+        entries.put(key, adapter);
+
+        Map<String, Formats> updated = new HashMap<>(apps);
+        updated.put(appName, new Formats(entries));
+        apps = Collections.unmodifiableMap(updated);
     }
 
     /**
@@ -86,53 +122,44 @@ public class AdapterRegistry {
      * Get an adapter for a specific app and format.
      *
      * @param appName the name of the mini-app
-     * @param format the format name
+     * @param format the format name, in any case
      * @return the adapter instance, or null if not found
      */
     public JMiniFormatAdapter<?> getAdapter(String appName, String format) {
-        Map<String, JMiniFormatAdapter<?>> appAdapters = adapters.get(appName);
-        if (appAdapters == null) {
-            return null;
-        }
-        return appAdapters.get(format.toLowerCase());
+        Formats formats = apps.get(appName);
+        return formats != null ? formats.get(format) : null;
     }
 
     /**
      * Get all supported formats for a mini-app.
      *
      * @param appName the name of the mini-app
-     * @return list of supported format names
+     * @return unmodifiable list of supported format names, in registration order
      */
     public List<String> getSupportedFormats(String appName) {
-        Map<String, JMiniFormatAdapter<?>> appAdapters = adapters.get(appName);
-        if (appAdapters == null) {
-            return Collections.emptyList();
-        }
-        return new ArrayList<>(appAdapters.keySet());
+        Formats formats = apps.get(appName);
+        return formats != null ? formats.names : Collections.emptyList();
     }
 
     /**
      * Check if a format is supported by a mini-app.
      *
      * @param appName the name of the mini-app
-     * @param format the format name to check
+     * @param format the format name to check, in any case
      * @return true if the format is supported
      */
     public boolean supportsFormat(String appName, String format) {
-        Map<String, JMiniFormatAdapter<?>> appAdapters = adapters.get(appName);
-        if (appAdapters == null) {
-            return false;
-        }
-        return appAdapters.containsKey(format.toLowerCase());
+        Formats formats = apps.get(appName);
+        return formats != null && formats.slotOf(format) >= 0;
     }
 
     /**
      * Get all registered app names.
      *
-     * @return set of app names
+     * @return unmodifiable set of app names
      */
     public Set<String> getRegisteredApps() {
-        return adapters.keySet();
+        return apps.keySet();
     }
 
     /**
@@ -140,15 +167,19 @@ public class AdapterRegistry {
      *
      * @param appName the name of the mini-app
      */
-    public void clearAdapters(String appName) {
-        adapters.remove(appName);
+    public synchronized void clearAdapters(String appName) {
+        if (apps.containsKey(appName)) {
+            Map<String, Formats> updated = new HashMap<>(apps);
+            updated.remove(appName);
+            apps = Collections.unmodifiableMap(updated);
+        }
     }
 
     /**
      * Clear all registered adapters.
      */
-    public void clearAll() {
-        adapters.clear();
+    public synchronized void clearAll() {
+        apps = Collections.emptyMap();
     }
 
     /**
@@ -159,8 +190,20 @@ public class AdapterRegistry {
      * @throws IllegalArgumentException if the class cannot be instantiated
      */
     private JMiniFormatAdapter<?> instantiateAdapter(String className) {
+        return instantiateAdapter(className, AdapterRegistry.class.getClassLoader());
+    }
+
+    /**
+     * Instantiate an adapter from a class name using reflection.
+     *
+     * @param className the fully qualified class name
+     * @param loader the class loader to load the class with
+     * @return the adapter instance
+     * @throws IllegalArgumentException if the class cannot be instantiated
+     */
+    static JMiniFormatAdapter<?> instantiateAdapter(String className, ClassLoader loader) {
         try {
-            Class<?> adapterClass = Class.forName(className);
+            Class<?> adapterClass = Class.forName(className, true, loader);
             Object instance = adapterClass.getDeclaredConstructor().newInstance();
 
             if (!(instance instanceof JMiniFormatAdapter)) {
@@ -185,4 +228,100 @@ public class AdapterRegistry {
             );
         }
     }
+
+    /**
+     * The adapters of one app, in an open-addressing table searched without
+     * lower-casing the format: hashes and comparisons ignore case.
+     */
+    private static final class Formats {
+        private final Map<String, Object> entries;
+        private final List<String> names;
+        private final String[] keys;
+        private final Object[] values;
+        private final int mask;
+
+        Formats(Map<String, Object> entries) {
+            this.entries = entries;
+            this.names = Collections.unmodifiableList(new ArrayList<>(entries.keySet()));
+
+            // At most half full, so probe sequences stay short
+            int capacity = Integer.highestOneBit(Math.max(1, entries.size()) * 2) * 2;
+            this.keys = new String[capacity];
+            this.values = new Object[capacity];
+            this.mask = capacity - 1;
+            for (Map.Entry<String, Object> entry : entries.entrySet()) {
+                int slot = hash(entry.getKey()) & mask;
+                while (keys[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = entry.getKey();
+                values[slot] = entry.getValue();
+            }
+        }
+
+        JMiniFormatAdapter<?> get(String format) {
+            int slot = slotOf(format);
+            if (slot < 0) {
+                return null;
+            }
+            Object value = values[slot];
+            return value instanceof LazyAdapter ? ((LazyAdapter) value).get() : (JMiniFormatAdapter<?>) value;
+        }
+
+        int slotOf(String format) {
+            if (format == null) {
+                return -1;
+            }
+            for (int slot = hash(format) & mask; keys[slot] != null; slot = (slot + 1) & mask) {
+                if (keys[slot].equalsIgnoreCase(format)) {
+                    return slot;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Hash a format so that names equal ignoring case hash alike.
+         */
+        private static int hash(String format) {
+            int hash = 0;
+            for (int i = 0; i < format.length(); i++) {
+                char c = format.charAt(i);
+                if (c >= 'A' && c <= 'Z') {
+                    c += 'a' - 'A';
+                } else if (c >= 0x80) {
+                    c = Character.toLowerCase(Character.toUpperCase(c));
+                }
+                hash = 31 * hash + c;
+            }
+            return hash ^ (hash >>> 16);
+        }
+    }
+
+    /**
+     * An adapter created by the first lookup of its format. Kept across
+     * snapshots, so it is created once however often adapters are registered.
+     */
+    private static final class LazyAdapter {
+        private final Supplier<? extends JMiniFormatAdapter<?>> factory;
+        private volatile JMiniFormatAdapter<?> adapter;
+
+        LazyAdapter(Supplier<? extends JMiniFormatAdapter<?>> factory) {
+            this.factory = factory;
+        }
+
+        JMiniFormatAdapter<?> get() {
+            JMiniFormatAdapter<?> result = adapter;
+            if (result == null) {
+                synchronized (this) {
+                    result = adapter;
+                    if (result == null) {
+                        result = factory.get();
+                        adapter = result;
+                    }
+                }
+            }
+            return result;
+        }
+    }
 }
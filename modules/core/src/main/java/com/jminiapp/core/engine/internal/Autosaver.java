@@ -0,0 +1,96 @@
+package com.jminiapp.core.engine.internal;
+
+import java.time.Duration;
+
+import com.jminiapp.core.engine.StateChange;
+import com.jminiapp.core.engine.StateChangeListener;
+
+/**
+ * Saves the data of an AppState in the background some time after it changed.
+ *
+ * <p>The first change after a save starts the interval; changes made during
+ * the interval are saved together at its end, so a burst of changes costs
+ * one write. Changes made while a save runs start the next interval. The
+ * threads making changes only flag them and never wait for a save.</p>
+ *
+ * <p>The save itself is done by the context, which exports a snapshot of the
+ * data, so the state must be thread-safe.</p>
+ */
+final class Autosaver implements StateChangeListener {
+
+    private final Runnable save;
+    private final long intervalMillis;
+    private final Thread saver;
+
+    // Guarded by this
+    private boolean changed;
+    private boolean closed;
+
+    /**
+     * Create an autosaver and start its thread.
+     *
+     * @param save the action writing the data, which reports its own errors
+     * @param target the file saved to, for naming the thread
+     * @param interval how long changes may wait before being saved
+     */
+    Autosaver(Runnable save, String target, Duration interval) {
+        this.save = save;
+        this.intervalMillis = Math.max(1, interval.toMillis());
+        this.saver = new Thread(this::runSaver, "jminiapp-autosave-" + target);
+        this.saver.setDaemon(true);
+        this.saver.start();
+    }
+
+    @Override
+    public synchronized void onChange(StateChange change) {
+        if (!changed) {
+            changed = true;
+            notifyAll();
+        }
+    }
+
+    /**
+     * Stop the autosave thread. A save in progress is finished first;
+     * changes waiting for their interval are left to the caller.
+     */
+    void close() {
+        synchronized (this) {
+            closed = true;
+            notifyAll();
+        }
+        try {
+            saver.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void runSaver() {
+        while (await()) {
+            save.run();
+        }
+    }
+
+    /**
+     * Wait for a change, then for the interval to pass.
+     *
+     * @return false if the autosaver was closed
+     */
+    private synchronized boolean await() {
+        try {
+            while (!changed && !closed) {
+                wait();
+            }
+            long deadline = System.nanoTime() + intervalMillis * 1_000_000;
+            long remaining;
+            while (!closed && (remaining = deadline - System.nanoTime()) > 0) {
+                wait(Math.max(1, remaining / 1_000_000));
+            }
+        } catch (InterruptedException e) {
+            return false;
+        }
+        // Changes from here on are not in the save and start the next interval
+        changed = false;
+        return !closed;
+    }
+}
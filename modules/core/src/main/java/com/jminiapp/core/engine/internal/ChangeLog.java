@@ -0,0 +1,295 @@
+package com.jminiapp.core.engine.internal;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import com.jminiapp.core.api.JMiniFormatAdapter;
+import com.jminiapp.core.engine.StateChange;
+
+/**
+ * Binary log of {@link StateChange}s stored next to a snapshot file.
+ *
+ * <p>Layout: a header identifying the snapshot the log applies to (its size,
+ * modification time and CRC-32 checksum), followed by records of
+ * {@code [length:int][crc32:int][type:byte][index:int][element]}, where the
+ * length and checksum cover everything after the checksum. Elements are
+ * encoded with the snapshot's own format adapter through
+ * {@link JMiniFormatAdapter#writeElement}, without a file header.</p>
+ *
+ * <p>A log whose header does not match its snapshot is stale (the snapshot
+ * was rewritten after the log) and is ignored. Size and modification time
+ * are checked on every append; the checksum is checked when the log is
+ * first read, as {@link #exists} does before a snapshot is loaded, because a
+ * crash between a snapshot rewrite and {@link #delete} can leave a log whose
+ * size and coarse modification time still match. Replay stops at the first
+ * record that is cut short or fails its checksum, as left by a crash during
+ * an append, and truncates the log there.</p>
+ */
+final class ChangeLog {
+
+    private static final int MAGIC = 0x4A4D4433; // "JMD3"
+    private static final int HEADER_SIZE = 4 + 8 + 8 + 4;
+    private static final int CHECKSUM_OFFSET = 4 + 8 + 8;
+    private static final int FRAME_SIZE = 4 + 4;
+    private static final int BODY_HEADER_SIZE = 1 + 4;
+
+    private ChangeLog() {
+    }
+
+    /**
+     * Get the change log path for a snapshot file.
+     *
+     * @param snapshot the snapshot file
+     * @return the log file path
+     */
+    static Path logFileFor(Path snapshot) {
+        return Paths.get(snapshot + ".delta");
+    }
+
+    /**
+     * Encode changes into log records.
+     *
+     * @param changes the changes to encode
+     * @param adapter the adapter used to encode elements
+     * @return the encoded records
+     * @throws IOException if an element cannot be encoded
+     */
+    static byte[] encode(List<StateChange> changes, JMiniFormatAdapter<Object> adapter) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        DataOutputStream bodyOut = new DataOutputStream(body);
+        CRC32 crc = new CRC32();
+        for (StateChange change : changes) {
+            body.reset();
+            bodyOut.writeByte(change.getType().ordinal());
+            bodyOut.writeInt(change.getIndex());
+            if (change.getType() == StateChange.Type.INSERT || change.getType() == StateChange.Type.UPDATE) {
+                adapter.writeElement(change.getElement(), body);
+            }
+            bodyOut.flush();
+
+            crc.reset();
+            crc.update(body.toByteArray(), 0, body.size());
+            out.writeInt(body.size());
+            out.writeInt((int) crc.getValue());
+            body.writeTo(out);
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Append encoded records to the log of a snapshot, creating the log if needed.
+     *
+     * @param snapshot the snapshot file the records apply to
+     * @param records records produced by {@link #encode}
+     * @param sync whether to force the log to disk
+     * @throws IOException if the log cannot be written
+     */
+    static void append(Path snapshot, byte[] records, boolean sync) throws IOException {
+        Path log = logFileFor(snapshot);
+        boolean fresh = !Files.exists(log) || !matches(log, snapshot);
+
+        try (FileOutputStream file = new FileOutputStream(log.toFile(), !fresh)) {
+            if (fresh) {
+                DataOutputStream header = new DataOutputStream(file);
+                header.writeInt(MAGIC);
+                header.writeLong(Files.size(snapshot));
+                header.writeLong(Files.getLastModifiedTime(snapshot).toMillis());
+                header.writeInt(checksum(snapshot));
+                header.flush();
+            }
+            file.write(records);
+            if (sync) {
+                file.getChannel().force(true);
+            }
+        }
+    }
+
+    /**
+     * Get the size of the log of a snapshot.
+     *
+     * @param snapshot the snapshot file
+     * @return the log size in bytes, or 0 if there is no valid log
+     * @throws IOException if the log cannot be inspected
+     */
+    static long size(Path snapshot) throws IOException {
+        Path log = logFileFor(snapshot);
+        return Files.exists(log) && matches(log, snapshot) ? Files.size(log) : 0;
+    }
+
+    /**
+     * Check whether a snapshot has a valid change log, comparing the
+     * snapshot's checksum with the log header.
+     *
+     * <p>A log whose size and modification time match but whose checksum
+     * does not is deleted, so later appends start a fresh log instead of
+     * extending the stale one.</p>
+     *
+     * @param snapshot the snapshot file
+     * @return true if a log exists and applies to the snapshot
+     */
+    static boolean exists(Path snapshot) {
+        try {
+            if (size(snapshot) <= HEADER_SIZE) {
+                return false;
+            }
+            Path log = logFileFor(snapshot);
+            int logged;
+            try (FileChannel channel = FileChannel.open(log, StandardOpenOption.READ)) {
+                ByteBuffer header = ByteBuffer.allocate(4);
+                channel.read(header, CHECKSUM_OFFSET);
+                logged = header.getInt(0);
+            }
+            if (logged != checksum(snapshot)) {
+                delete(snapshot);
+                return false;
+            }
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Replay the log of a snapshot onto the snapshot's data. Callers check
+     * {@link #exists} first.
+     *
+     * @param snapshot the snapshot file
+     * @param data the data read from the snapshot (modified in place)
+     * @param adapter the adapter used to decode elements
+     * @throws IOException if the log cannot be read
+     */
+    static void replay(Path snapshot, List<Object> data, JMiniFormatAdapter<Object> adapter) throws IOException {
+        if (size(snapshot) <= HEADER_SIZE) {
+            return;
+        }
+
+        Path log = logFileFor(snapshot);
+        ByteBuffer records = ByteBuffer.wrap(Files.readAllBytes(log));
+        records.position(HEADER_SIZE);
+
+        List<StateChange> changes = new ArrayList<>();
+        StateChange change;
+        while ((change = readRecord(records, adapter)) != null) {
+            changes.add(change);
+        }
+        if (records.hasRemaining()) {
+            // A torn or corrupt tail: drop it so later appends follow the last good record
+            truncate(log, records.position());
+        }
+
+        for (StateChange valid : changes) {
+            apply(valid, data);
+        }
+    }
+
+    /**
+     * Delete the log of a snapshot.
+     *
+     * @param snapshot the snapshot file
+     * @throws IOException if the log cannot be deleted
+     */
+    static void delete(Path snapshot) throws IOException {
+        Files.deleteIfExists(logFileFor(snapshot));
+    }
+
+    /**
+     * Read one record, leaving the buffer after it.
+     *
+     * @return the change, or null at the end of the log or at a record that
+     *         is cut short or corrupt (the buffer then stays at its start)
+     */
+    private static StateChange readRecord(ByteBuffer records, JMiniFormatAdapter<Object> adapter) throws IOException {
+        int start = records.position();
+        if (records.remaining() < FRAME_SIZE + BODY_HEADER_SIZE) {
+            return null;
+        }
+        int length = records.getInt();
+        int checksum = records.getInt();
+        if (length < BODY_HEADER_SIZE || length > records.remaining()) {
+            records.position(start);
+            return null;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(records.array(), records.position(), length);
+        int type = records.get(records.position()) & 0xFF;
+        if ((int) crc.getValue() != checksum || type >= StateChange.Type.values().length) {
+            records.position(start);
+            return null;
+        }
+
+        int bodyStart = records.position();
+        records.get();
+        int index = records.getInt();
+        int payloadLength = length - BODY_HEADER_SIZE;
+        Object element = null;
+        StateChange.Type changeType = StateChange.Type.values()[type];
+        if (changeType == StateChange.Type.INSERT || changeType == StateChange.Type.UPDATE) {
+            element = adapter.readElement(new ByteArrayInputStream(records.array(), records.position(), payloadLength));
+        }
+        records.position(bodyStart + length);
+        return new StateChange(changeType, index, element, null);
+    }
+
+    private static void truncate(Path log, long size) {
+        try (FileChannel channel = FileChannel.open(log, StandardOpenOption.WRITE)) {
+            channel.truncate(size);
+        } catch (IOException e) {
+            System.err.println("Warning: failed to truncate corrupt tail of " + log + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Apply one change to a list.
+     */
+    static void apply(StateChange change, List<Object> data) {
+        switch (change.getType()) {
+            case INSERT:
+                data.add(change.getIndex(), change.getElement());
+                break;
+            case UPDATE:
+                data.set(change.getIndex(), change.getElement());
+                break;
+            case DELETE:
+                data.remove(change.getIndex());
+                break;
+            case CLEAR:
+            case RESET:
+                data.clear();
+                break;
+        }
+    }
+
+    private static int checksum(Path snapshot) throws IOException {
+        CRC32 crc = new CRC32();
+        byte[] buffer = new byte[8192];
+        try (InputStream in = Files.newInputStream(snapshot)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                crc.update(buffer, 0, read);
+            }
+        }
+        return (int) crc.getValue();
+    }
+
+    private static boolean matches(Path log, Path snapshot) throws IOException {
+        if (!Files.exists(snapshot) || Files.size(log) < HEADER_SIZE) {
+            return false;
+        }
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(log, StandardOpenOption.READ))) {
+            return in.readInt() == MAGIC
+                    && in.readLong() == Files.size(snapshot)
+                    && in.readLong() == Files.getLastModifiedTime(snapshot).toMillis();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.jminiapp.core.engine.internal;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executor running asynchronous imports and exports when the app sets none.
+ *
+ * <p>Imports and exports spend most of their time waiting for the disk, so
+ * each task gets its own thread instead of sharing a pool sized for CPU work.
+ * On runtimes with virtual threads (Java 21+) those are virtual threads,
+ * found by reflection since the code is compiled for Java 17; otherwise they
+ * are cached daemon platform threads.</p>
+ */
+final class DefaultExecutor {
+
+    private static final ExecutorService INSTANCE = create();
+
+    private DefaultExecutor() {
+    }
+
+    /**
+     * Get the shared executor.
+     *
+     * @return the executor, created on first use
+     */
+    static ExecutorService get() {
+        return INSTANCE;
+    }
+
+    private static ExecutorService create() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // No virtual threads on this runtime
+        }
+
+        AtomicInteger count = new AtomicInteger();
+        ThreadFactory threads = task -> {
+            Thread thread = new Thread(task, "jminiapp-io-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return Executors.newCachedThreadPool(threads);
+    }
+}
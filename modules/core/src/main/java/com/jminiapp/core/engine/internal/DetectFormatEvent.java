@@ -0,0 +1,28 @@
+package com.jminiapp.core.engine.internal;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for detecting the format of a file.
+ */
+@Name("com.jminiapp.DetectFormat")
+@Label("Detect Format")
+@Category("JMiniApp")
+@Description("Format of a file detected from its name or content")
+final class DetectFormatEvent extends Event {
+
+    @Label("Path")
+    String path;
+
+    @Label("Format")
+    @Description("The detected format, or null if none matched")
+    String format;
+
+    @Label("From Content")
+    @Description("Whether the file had to be read, as its extension gave no supported format")
+    boolean fromContent;
+}
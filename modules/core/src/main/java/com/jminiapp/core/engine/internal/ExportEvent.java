@@ -0,0 +1,41 @@
+package com.jminiapp.core.engine.internal;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for an export, including the wait for other exports
+ * and autosaves.
+ */
+@Name("com.jminiapp.Export")
+@Label("Export")
+@Category("JMiniApp")
+@Description("Data exported to a file")
+final class ExportEvent extends Event {
+
+    @Label("Path")
+    String path;
+
+    @Label("Format")
+    String format;
+
+    @Label("Mode")
+    @Description("SNAPSHOT, or DELTA when only the changes were asked for")
+    String mode;
+
+    @Label("Delta")
+    @Description("Whether only the changes were written")
+    boolean delta;
+
+    @Label("Records")
+    @Description("Records written, or changes for a delta")
+    long records;
+
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+}
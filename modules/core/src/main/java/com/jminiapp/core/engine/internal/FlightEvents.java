@@ -0,0 +1,63 @@
+package com.jminiapp.core.engine.internal;
+
+import jdk.jfr.FlightRecorder;
+
+/**
+ * Starts the Flight Recorder events of a context, but only once Flight
+ * Recorder is running.
+ *
+ * <p>Loading the first event class sets up Flight Recorder, which adds a few
+ * hundred milliseconds to the first import or export. Until a recording is
+ * started (with {@code -XX:StartFlightRecording}, {@code jcmd} or JMC), no
+ * event class is loaded and these methods return null.</p>
+ */
+final class FlightEvents {
+
+    private FlightEvents() {
+    }
+
+    static ImportEvent beginImport() {
+        if (!FlightRecorder.isInitialized()) {
+            return null;
+        }
+        ImportEvent event = new ImportEvent();
+        event.begin();
+        return event;
+    }
+
+    static ExportEvent beginExport() {
+        if (!FlightRecorder.isInitialized()) {
+            return null;
+        }
+        ExportEvent event = new ExportEvent();
+        event.begin();
+        return event;
+    }
+
+    static MergeEvent beginMerge() {
+        if (!FlightRecorder.isInitialized()) {
+            return null;
+        }
+        MergeEvent event = new MergeEvent();
+        event.begin();
+        return event;
+    }
+
+    static AdapterReadEvent beginRead() {
+        if (!FlightRecorder.isInitialized()) {
+            return null;
+        }
+        AdapterReadEvent event = new AdapterReadEvent();
+        event.begin();
+        return event;
+    }
+
+    static DetectFormatEvent beginDetectFormat() {
+        if (!FlightRecorder.isInitialized()) {
+            return null;
+        }
+        DetectFormatEvent event = new DetectFormatEvent();
+        event.begin();
+        return event;
+    }
+}
@@ -0,0 +1,40 @@
+package com.jminiapp.core.engine.internal;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for an import, from opening the file to merging
+ * the last record.
+ */
+@Name("com.jminiapp.Import")
+@Label("Import")
+@Category("JMiniApp")
+@Description("Data imported from a file")
+final class ImportEvent extends Event {
+
+    @Label("Path")
+    @Description("The file imported, or the files for importAll")
+    String path;
+
+    @Label("Format")
+    String format;
+
+    @Label("Strategy")
+    String strategy;
+
+    @Label("Mode")
+    String mode;
+
+    @Label("Records")
+    @Description("Records read from the file, before merging")
+    long records;
+
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+}
@@ -0,0 +1,30 @@
+package com.jminiapp.core.engine.internal;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for an import strategy merging read records into
+ * the data. Streaming imports merge while reading and report it as an
+ * {@link AdapterReadEvent} instead.
+ */
+@Name("com.jminiapp.Merge")
+@Label("Merge")
+@Category("JMiniApp")
+@Description("Imported records merged into the data")
+final class MergeEvent extends Event {
+
+    @Label("Strategy")
+    String strategy;
+
+    @Label("Records")
+    @Description("Records merged")
+    long records;
+
+    @Label("Size")
+    @Description("Elements in the data after the merge")
+    long size;
+}
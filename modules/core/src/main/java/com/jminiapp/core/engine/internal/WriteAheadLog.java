@@ -0,0 +1,229 @@
+package com.jminiapp.core.engine.internal;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.jminiapp.core.api.JMiniFormatAdapter;
+import com.jminiapp.core.engine.StateChange;
+import com.jminiapp.core.engine.StateChangeListener;
+
+/**
+ * Write-ahead log persisting every change of an AppState as it happens.
+ *
+ * <p>Changes are queued by {@link #onChange(StateChange)} on the thread that
+ * made them and written by a background thread in groups: every commit
+ * interval, all queued changes are appended to the snapshot's
+ * {@link ChangeLog} with a single write and a single fsync. A crash loses at
+ * most one commit interval of changes; loading the snapshot replays the log.</p>
+ *
+ * <p>Writing a new snapshot (compaction) is done by the context, which holds
+ * {@link #commitLock()} while it writes and calls {@link #discardPending(long)}
+ * with the version of the snapshot, since the changes queued up to that
+ * version are part of it.</p>
+ *
+ * <p>After a failed commit, or once the data was replaced, nothing more can
+ * be appended until a new snapshot is written. The commit thread then runs
+ * the compaction itself, retrying with a growing delay until it succeeds.</p>
+ */
+final class WriteAheadLog implements StateChangeListener {
+
+    /** Logs smaller than this are never worth compacting. */
+    private static final long MIN_COMPACTION_SIZE = 1024 * 1024;
+
+    /** Longest wait between two attempts to write a required snapshot. */
+    private static final long MAX_RETRY_MILLIS = 10_000;
+
+    private final Path snapshot;
+    private final JMiniFormatAdapter<Object> adapter;
+    private final Runnable compaction;
+    private final long commitIntervalMillis;
+    private final Object commitLock = new Object();
+    private final Thread committer;
+
+    // Guarded by this
+    private List<StateChange> queue = new ArrayList<>();
+    private boolean snapshotRequired;
+    private long lostVersion; // Highest version neither logged nor queued
+    private boolean closed;
+
+    /**
+     * Create a log for a snapshot file and start its commit thread.
+     *
+     * @param snapshot the snapshot file the log applies to (must exist)
+     * @param adapter the adapter used to encode elements
+     * @param compaction the action writing a new snapshot, which reports its own errors
+     * @param commitInterval how long changes may wait before being written
+     */
+    WriteAheadLog(Path snapshot, JMiniFormatAdapter<Object> adapter, Runnable compaction, Duration commitInterval) {
+        this.snapshot = snapshot;
+        this.adapter = adapter;
+        this.compaction = compaction;
+        this.commitIntervalMillis = Math.max(1, commitInterval.toMillis());
+        this.committer = new Thread(this::runCommitter, "jminiapp-wal-" + snapshot.getFileName());
+        this.committer.setDaemon(true);
+        this.committer.start();
+    }
+
+    @Override
+    public synchronized void onChange(StateChange change) {
+        if (closed) {
+            return;
+        }
+        if (snapshotRequired) {
+            lostVersion = change.getVersion();
+            return;
+        }
+        if (change.getType() == StateChange.Type.RESET) {
+            // Not expressible as log records; the next compaction writes it out
+            snapshotRequired = true;
+            lostVersion = change.getVersion();
+            queue.clear();
+            return;
+        }
+        queue.add(change);
+    }
+
+    /**
+     * Check whether this log belongs to a file.
+     *
+     * @param file a snapshot path
+     * @return true if the file is this log's snapshot
+     */
+    boolean isFor(Path file) {
+        return snapshot.toAbsolutePath().normalize().equals(file.toAbsolutePath().normalize());
+    }
+
+    /**
+     * Lock held while appending to the log; hold it to write the snapshot.
+     *
+     * @return the commit lock
+     */
+    Object commitLock() {
+        return commitLock;
+    }
+
+    /**
+     * Write all queued changes now.
+     *
+     * @throws IOException if the log cannot be written
+     */
+    void commit() throws IOException {
+        synchronized (commitLock) {
+            List<StateChange> batch;
+            synchronized (this) {
+                if (queue.isEmpty() || snapshotRequired) {
+                    return;
+                }
+                batch = queue;
+                queue = new ArrayList<>();
+            }
+            try {
+                ChangeLog.append(snapshot, ChangeLog.encode(batch, adapter), true);
+            } catch (IOException | RuntimeException e) {
+                // Later records would build on the lost ones; only a new snapshot can recover
+                synchronized (this) {
+                    snapshotRequired = true;
+                    List<StateChange> lost = queue.isEmpty() ? batch : queue;
+                    lostVersion = Math.max(lostVersion, lost.get(lost.size() - 1).getVersion());
+                    queue.clear();
+                }
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Drop queued changes because a snapshot containing them was written.
+     *
+     * @param savedVersion the version of the data in the snapshot
+     */
+    synchronized void discardPending(long savedVersion) {
+        queue.removeIf(change -> change.getVersion() <= savedVersion);
+        if (lostVersion <= savedVersion) {
+            snapshotRequired = false;
+        }
+    }
+
+    /**
+     * Check whether the snapshot should be rewritten: after the data was
+     * replaced, or once the log has grown larger than the snapshot.
+     *
+     * @return true if a compaction is due
+     */
+    boolean isCompactionDue() {
+        if (isSnapshotRequired()) {
+            return true;
+        }
+        try {
+            long logSize = ChangeLog.size(snapshot);
+            return logSize > MIN_COMPACTION_SIZE && logSize > Files.size(snapshot);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private synchronized boolean isSnapshotRequired() {
+        return snapshotRequired;
+    }
+
+    /**
+     * Stop the commit thread and write the remaining changes. A commit or
+     * compaction in progress is finished first.
+     *
+     * <p>Changes cannot be written while a snapshot is required, so the
+     * caller should compact first.</p>
+     *
+     * @throws IOException if the last changes cannot be written
+     */
+    void close() throws IOException {
+        synchronized (this) {
+            closed = true;
+            notifyAll();
+        }
+        try {
+            committer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        commit();
+    }
+
+    private void runCommitter() {
+        long delay = commitIntervalMillis;
+        while (await(delay)) {
+            if (isSnapshotRequired()) {
+                compaction.run();
+                delay = isSnapshotRequired() ? Math.min(delay * 2, MAX_RETRY_MILLIS) : commitIntervalMillis;
+                continue;
+            }
+            try {
+                commit();
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Write-ahead log commit failed for " + snapshot + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Wait for a delay to pass.
+     *
+     * @return false if the log was closed
+     */
+    private synchronized boolean await(long delayMillis) {
+        // Not interrupted on close: that would abort a compaction's file writes
+        long deadline = System.nanoTime() + delayMillis * 1_000_000;
+        long remaining;
+        try {
+            while (!closed && (remaining = deadline - System.nanoTime()) > 0) {
+                wait(Math.max(1, remaining / 1_000_000));
+            }
+        } catch (InterruptedException e) {
+            return false;
+        }
+        return !closed;
+    }
+}
@@ -0,0 +1,23 @@
+package com.jminiapp.core.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A count kept by a {@link MetricsRegistry}.
+ */
+public final class Counter implements CounterMBean {
+
+    private final LongAdder count = new LongAdder();
+
+    Counter() {
+    }
+
+    void add(long amount) {
+        count.add(amount);
+    }
+
+    @Override
+    public long getCount() {
+        return count.sum();
+    }
+}
@@ -0,0 +1,190 @@
+package com.jminiapp.core.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Keeps measurements in memory as counters and timers.
+ *
+ * <p>Each name and tag gets its own {@link Counter} or {@link Timer}, created
+ * on first use. Looking one up allocates nothing, so recording stays cheap
+ * on hot paths. After {@link #registerMBeans(String)}, every counter and
+ * timer is also published as an MBean named
+ * {@code com.jminiapp:app=<app>,type=Timer,name=import.read,tag=csv}, for
+ * JConsole, VisualVM or a JMX exporter.</p>
+ *
+ * <p><b>Example:</b></p>
+ * <pre>
+ * MetricsRegistry metrics = new MetricsRegistry();
+ * JMiniAppRunner.forApp(TodoApp.class)
+ *     .withState(TodoItem.class)
+ *     .withMetrics(metrics)
+ *     .run(args);
+ *
+ * Timer reads = metrics.getTimer("import.read", "json");
+ * double recordsPerSecond = metrics.getThroughput("import.records", "import", "json");
+ * </pre>
+ */
+public class MetricsRegistry implements MetricsSink {
+
+    private static final String DOMAIN = "com.jminiapp";
+
+    private final ConcurrentMap<String, ConcurrentMap<String, Timer>> timers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, ConcurrentMap<String, Counter>> counters = new ConcurrentHashMap<>();
+
+    // Guarded by this
+    private String mbeanApp;
+    private final List<ObjectName> mbeans = new ArrayList<>();
+
+    @Override
+    public void recordTime(String name, String tag, long nanos) {
+        lookup(timers, name, tag, Timer::new, "Timer").record(nanos);
+    }
+
+    @Override
+    public void increment(String name, String tag, long amount) {
+        lookup(counters, name, tag, Counter::new, "Counter").add(amount);
+    }
+
+    /**
+     * Get a timer.
+     *
+     * @param name the measurement name
+     * @param tag the format or strategy
+     * @return the timer, or null if nothing was recorded under that name and tag
+     */
+    public Timer getTimer(String name, String tag) {
+        Map<String, Timer> tagged = timers.get(name);
+        return tagged != null ? tagged.get(tag) : null;
+    }
+
+    /**
+     * Get the timers of a measurement.
+     *
+     * @param name the measurement name
+     * @return the timers by tag, possibly none
+     */
+    public Map<String, Timer> getTimers(String name) {
+        Map<String, Timer> tagged = timers.get(name);
+        return tagged != null ? Collections.unmodifiableMap(tagged) : Collections.emptyMap();
+    }
+
+    /**
+     * Get the value of a counter.
+     *
+     * @param name the counter name
+     * @param tag the format
+     * @return the count, or 0 if nothing was counted under that name and tag
+     */
+    public long getCount(String name, String tag) {
+        Map<String, Counter> tagged = counters.get(name);
+        Counter counter = tagged != null ? tagged.get(tag) : null;
+        return counter != null ? counter.getCount() : 0;
+    }
+
+    /**
+     * Get how much of a counter was counted per second of a timer.
+     *
+     * <p>For instance {@code getThroughput("import.records", "import", "csv")}
+     * is the number of records imported from CSV per second spent importing.</p>
+     *
+     * @param counter the counter name
+     * @param timer the timer name
+     * @param tag the format
+     * @return the amount per second, or 0 if the timer recorded nothing
+     */
+    public double getThroughput(String counter, String timer, String tag) {
+        Timer time = getTimer(timer, tag);
+        if (time == null || time.getTotalNanos() == 0) {
+            return 0;
+        }
+        return getCount(counter, tag) * 1e9 / time.getTotalNanos();
+    }
+
+    /**
+     * Publish every counter and timer, current and future, as an MBean.
+     *
+     * @param appName the app name, used in the MBean names
+     * @throws IllegalStateException if the MBeans are already published
+     */
+    public synchronized void registerMBeans(String appName) {
+        if (mbeanApp != null) {
+            throw new IllegalStateException("Metrics are already published for " + mbeanApp);
+        }
+        mbeanApp = appName;
+        timers.forEach((name, tagged) -> tagged.forEach((tag, timer) -> register(timer, "Timer", name, tag)));
+        counters.forEach((name, tagged) -> tagged.forEach((tag, counter) -> register(counter, "Counter", name, tag)));
+    }
+
+    /**
+     * Remove the MBeans published by {@link #registerMBeans(String)}.
+     * The counters and timers keep their values.
+     */
+    public synchronized void unregisterMBeans() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (ObjectName name : mbeans) {
+            try {
+                server.unregisterMBean(name);
+            } catch (JMException e) {
+                // Already removed by someone else
+            }
+        }
+        mbeans.clear();
+        mbeanApp = null;
+    }
+
+    private <M> M lookup(ConcurrentMap<String, ConcurrentMap<String, M>> metrics, String name, String tag,
+                         Supplier<M> factory, String type) {
+        ConcurrentMap<String, M> tagged = metrics.get(name);
+        M metric = tagged != null ? tagged.get(tag) : null;
+        if (metric != null) {
+            return metric;
+        }
+        return create(metrics, name, tag, factory, type);
+    }
+
+    private synchronized <M> M create(ConcurrentMap<String, ConcurrentMap<String, M>> metrics, String name, String tag,
+                                      Supplier<M> factory, String type) {
+        ConcurrentMap<String, M> tagged = metrics.computeIfAbsent(name, n -> new ConcurrentHashMap<>());
+        M metric = tagged.get(tag);
+        if (metric == null) {
+            metric = factory.get();
+            tagged.put(tag, metric);
+            if (mbeanApp != null) {
+                register(metric, type, name, tag);
+            }
+        }
+        return metric;
+    }
+
+    private void register(Object metric, String type, String name, String tag) {
+        try {
+            ObjectName objectName = new ObjectName(DOMAIN + ":app=" + quote(mbeanApp) + ",type=" + type
+                    + ",name=" + quote(name) + ",tag=" + quote(tag));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(metric, objectName);
+            mbeans.add(objectName);
+        } catch (JMException e) {
+            System.err.println("Failed to publish metric " + name + " (" + tag + ") through JMX: " + e.getMessage());
+        }
+    }
+
+    private static String quote(String value) {
+        String text = String.valueOf(value);
+        for (int i = 0; i < text.length(); i++) {
+            if (",=:\"*?\\\n".indexOf(text.charAt(i)) >= 0) {
+                return ObjectName.quote(text);
+            }
+        }
+        return text;
+    }
+}
@@ -0,0 +1,46 @@
+package com.jminiapp.core.metrics;
+
+/**
+ * Receives the measurements a context takes of its imports and exports.
+ *
+ * <p>Measurements have a name, like {@code "import.read"}, and a tag saying
+ * what they are for: the format for reads and writes, the strategy for
+ * merges. {@link MetricsRegistry} keeps them in memory and can publish them
+ * through JMX; implement this interface to send them elsewhere.</p>
+ *
+ * <p>Methods are called on the thread doing the work, possibly from several
+ * threads at once. They should be fast and must not throw.</p>
+ *
+ * <p><b>Measurements:</b></p>
+ * <ul>
+ *   <li>{@code import}, {@code export} (by format) - whole operation time</li>
+ *   <li>{@code import.read} (by format) - reading a file into memory</li>
+ *   <li>{@code import.merge} (by strategy) - merging read data into the app's data</li>
+ *   <li>{@code import.stream} (by format) - reading and merging record by record</li>
+ *   <li>{@code export.write} (by format) - writing the whole data</li>
+ *   <li>{@code export.delta} (by format) - appending changes to a change log</li>
+ *   <li>{@code import.records}, {@code import.bytes}, {@code export.records},
+ *       {@code export.bytes} (by format) - counters</li>
+ *   <li>{@code import.errors}, {@code export.errors} (by format) - failed operations</li>
+ * </ul>
+ */
+public interface MetricsSink {
+
+    /**
+     * Record how long something took.
+     *
+     * @param name the measurement name
+     * @param tag the format or strategy measured
+     * @param nanos the duration in nanoseconds
+     */
+    void recordTime(String name, String tag, long nanos);
+
+    /**
+     * Add to a counter.
+     *
+     * @param name the counter name
+     * @param tag the format counted
+     * @param amount the amount to add
+     */
+    void increment(String name, String tag, long amount);
+}
@@ -0,0 +1,154 @@
+package com.jminiapp.core.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Durations kept by a {@link MetricsRegistry}, with their distribution.
+ *
+ * <p>Durations are counted in buckets that split each power of two into
+ * eight, so percentiles are within 12.5% of the actual value while a timer
+ * takes a fixed 4 KB, however many durations it records. Recording takes
+ * no lock and allocates nothing.</p>
+ */
+public final class Timer implements TimerMBean {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    Timer() {
+    }
+
+    void record(long nanos) {
+        long value = Math.max(0, nanos);
+        buckets.incrementAndGet(bucketOf(value));
+        count.increment();
+        total.add(value);
+        long previous;
+        while (value > (previous = max.get()) && !max.compareAndSet(previous, value)) {
+            // Another thread raised the maximum; check against the new one
+        }
+    }
+
+    /**
+     * Get the total of all recorded durations.
+     *
+     * @return the total in nanoseconds
+     */
+    public long getTotalNanos() {
+        return total.sum();
+    }
+
+    /**
+     * Get the longest recorded duration.
+     *
+     * @return the maximum in nanoseconds, or 0 if none was recorded
+     */
+    public long getMaxNanos() {
+        return max.get();
+    }
+
+    /**
+     * Get a percentile of the recorded durations.
+     *
+     * @param percentile the percentile, from 0 to 100
+     * @return the duration in nanoseconds that the given share of recorded
+     *         durations did not exceed, or 0 if none was recorded
+     * @throws IllegalArgumentException if percentile is not between 0 and 100
+     */
+    public long getPercentileNanos(double percentile) {
+        if (!(percentile >= 0 && percentile <= 100)) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100: " + percentile);
+        }
+        long[] counts = new long[BUCKETS];
+        long recorded = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets.get(i);
+            recorded += counts[i];
+        }
+        if (recorded == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * recorded));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(lowestOf(i + 1) - 1, max.get());
+            }
+        }
+        return max.get();
+    }
+
+    @Override
+    public long getCount() {
+        return count.sum();
+    }
+
+    @Override
+    public double getTotalMillis() {
+        return getTotalNanos() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getMeanMillis() {
+        long recorded = getCount();
+        return recorded == 0 ? 0 : getTotalNanos() / NANOS_PER_MILLI / recorded;
+    }
+
+    @Override
+    public double getMaxMillis() {
+        return getMaxNanos() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getMedianMillis() {
+        return getPercentileNanos(50) / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double get90thPercentileMillis() {
+        return getPercentileNanos(90) / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double get99thPercentileMillis() {
+        return getPercentileNanos(99) / NANOS_PER_MILLI;
+    }
+
+    /**
+     * Get the bucket of a duration: its power of two, then which eighth of it.
+     */
+    static int bucketOf(long nanos) {
+        if (nanos < SUB_BUCKETS) {
+            return (int) nanos;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        int sub = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * Get the shortest duration falling into a bucket.
+     */
+    static long lowestOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        if (bucket >= BUCKETS) {
+            return Long.MAX_VALUE;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long sub = bucket % SUB_BUCKETS;
+        return (SUB_BUCKETS + sub) << (exponent - SUB_BUCKET_BITS);
+    }
+}
@@ -0,0 +1,21 @@
+package com.jminiapp.core.metrics;
+
+/**
+ * JMX view of a {@link Timer}. Durations are in milliseconds.
+ */
+public interface TimerMBean {
+
+    long getCount();
+
+    double getTotalMillis();
+
+    double getMeanMillis();
+
+    double getMaxMillis();
+
+    double getMedianMillis();
+
+    double get90thPercentileMillis();
+
+    double get99thPercentileMillis();
+}
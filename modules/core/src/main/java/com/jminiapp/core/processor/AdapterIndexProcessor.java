@@ -0,0 +1,197 @@
+package com.jminiapp.core.processor;
+
+import com.jminiapp.core.api.JMiniAdapter;
+import com.jminiapp.core.api.JMiniFormatAdapter;
+import com.jminiapp.core.engine.internal.AdapterDiscovery;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Annotation processor writing the index of {@link JMiniAdapter} adapters.
+ *
+ * <p>Each line of {@code META-INF/jminiapp/adapters} holds the format, the
+ * binary name of the data type the adapter handles ({@code *} if it is not
+ * a plain class) and the binary name of the adapter. Reading the index lets
+ * discovery register adapters without loading their classes.</p>
+ *
+ * <p>Up to JDK 22, javac runs the processor whenever the core jar is on the
+ * classpath. From JDK 23 processors are no longer discovered by default:
+ * compile with {@code -proc:full}, or list the core jar in the
+ * maven-compiler-plugin {@code annotationProcessorPaths}.
+ * When only some sources are recompiled, entries of the previous index are
+ * kept for the adapters that still exist and are still annotated.</p>
+ */
+@SupportedAnnotationTypes("com.jminiapp.core.api.JMiniAdapter")
+public class AdapterIndexProcessor extends AbstractProcessor {
+
+    // Adapter binary name to index line, sorted for reproducible output
+    private final Map<String, String> entries = new TreeMap<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment round) {
+        if (round.processingOver()) {
+            if (!entries.isEmpty()) {
+                writeIndex();
+            }
+            return false;
+        }
+        for (Element element : round.getElementsAnnotatedWith(JMiniAdapter.class)) {
+            index(element);
+        }
+        return false;
+    }
+
+    private void index(Element element) {
+        if (element.getKind() != ElementKind.CLASS) {
+            error(element, "@JMiniAdapter only applies to classes");
+            return;
+        }
+        TypeElement type = (TypeElement) element;
+        Set<Modifier> modifiers = type.getModifiers();
+        if (!modifiers.contains(Modifier.PUBLIC) || modifiers.contains(Modifier.ABSTRACT)
+                || (type.getNestingKind() == NestingKind.MEMBER && !modifiers.contains(Modifier.STATIC))) {
+            error(type, "Adapter " + type + " must be a public, concrete, top-level or static class");
+            return;
+        }
+        if (!hasPublicNoArgConstructor(type)) {
+            error(type, "Adapter " + type + " must have a public no-argument constructor");
+            return;
+        }
+
+        TypeElement adapter = processingEnv.getElementUtils().getTypeElement(JMiniFormatAdapter.class.getName());
+        TypeMirror state = adapterArgument(type.asType(), adapter);
+        if (state == null) {
+            error(type, "Adapter " + type + " does not implement JMiniFormatAdapter");
+            return;
+        }
+
+        String format = type.getAnnotation(JMiniAdapter.class).value().trim();
+        if (format.isEmpty() || format.chars().anyMatch(Character::isWhitespace)) {
+            error(type, "Invalid format name for adapter " + type + ": '" + format + "'");
+            return;
+        }
+
+        String name = binaryName(type);
+        String stateName = state.getKind() == TypeKind.DECLARED
+                ? binaryName((TypeElement) ((DeclaredType) state).asElement())
+                : AdapterDiscovery.ANY_STATE;
+        entries.put(name, format + " " + stateName + " " + name);
+    }
+
+    private boolean hasPublicNoArgConstructor(TypeElement type) {
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            if (constructor.getParameters().isEmpty() && constructor.getModifiers().contains(Modifier.PUBLIC)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Find the type argument a type gives to {@code JMiniFormatAdapter}.
+     *
+     * @param type the type to search
+     * @param adapter the {@code JMiniFormatAdapter} interface
+     * @return the type argument, a non-declared type if the interface is used
+     *         raw, or null if the type does not implement it
+     */
+    private TypeMirror adapterArgument(TypeMirror type, TypeElement adapter) {
+        Types types = processingEnv.getTypeUtils();
+        if (types.isSameType(types.erasure(type), types.erasure(adapter.asType()))) {
+            DeclaredType declared = (DeclaredType) type;
+            return declared.getTypeArguments().isEmpty()
+                    ? types.getNoType(TypeKind.NONE) : declared.getTypeArguments().get(0);
+        }
+        // directSupertypes substitutes type arguments, e.g. JSONAdapter<Task> -> JMiniFormatAdapter<Task>
+        for (TypeMirror parent : types.directSupertypes(type)) {
+            TypeMirror found = adapterArgument(parent, adapter);
+            if (found != null) {
+                return found;
+            }
+        }
+        return null;
+    }
+
+    private void writeIndex() {
+        Map<String, String> lines = new TreeMap<>(entries);
+        readPreviousIndex(lines);
+        try {
+            FileObject file = processingEnv.getFiler()
+                    .createResource(StandardLocation.CLASS_OUTPUT, "", AdapterDiscovery.INDEX);
+            try (Writer writer = file.openWriter()) {
+                writer.write("# format state adapter\n");
+                for (String line : lines.values()) {
+                    writer.write(line);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Failed to write " + AdapterDiscovery.INDEX + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Add the entries of an index left by a previous compilation, for the
+     * adapters not compiled this time that are still annotated.
+     */
+    private void readPreviousIndex(Map<String, String> lines) {
+        FileObject previous;
+        try {
+            previous = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", AdapterDiscovery.INDEX);
+        } catch (IOException | IllegalArgumentException e) {
+            return;
+        }
+        try (BufferedReader reader = new BufferedReader(previous.openReader(true))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.trim().split("\\s+");
+                if (parts.length != 3 || parts[0].startsWith("#") || entries.containsKey(parts[2])) {
+                    continue;
+                }
+                TypeElement type = processingEnv.getElementUtils().getTypeElement(parts[2].replace('$', '.'));
+                if (type != null && type.getAnnotation(JMiniAdapter.class) != null) {
+                    lines.put(parts[2], line.trim());
+                }
+            }
+        } catch (IOException e) {
+            // No previous index
+        }
+    }
+
+    private String binaryName(TypeElement type) {
+        return processingEnv.getElementUtils().getBinaryName(type).toString();
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+}
@@ -0,0 +1,122 @@
+package com.jminiapp.core.utils;
+
+import com.jminiapp.core.api.ExportDurability;
+
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Writes files so that readers never observe a partially written file.
+ *
+ * <p>Depending on the {@link ExportDurability}, content is written either
+ * straight into the target, or into a sibling temporary file that is
+ * (optionally fsynced and) atomically renamed over the target:</p>
+ * <pre>
+ * AtomicFileWriter.write(Paths.get("data/Todo.json"), ExportDurability.DURABLE,
+ *     output -&gt; adapter.write(items, output));
+ * </pre>
+ */
+public class AtomicFileWriter {
+
+    /**
+     * Produces the content of a file.
+     */
+    @FunctionalInterface
+    public interface ContentWriter {
+        /**
+         * Write the content to the given stream. Closing the stream is allowed.
+         *
+         * @param output the stream to write to
+         * @throws IOException if writing fails
+         */
+        void writeTo(OutputStream output) throws IOException;
+    }
+
+    /**
+     * Write a file with the given durability.
+     *
+     * @param target the file to create or replace
+     * @param durability how to protect the target against crashes
+     * @param content writes the file content
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(Path target, ExportDurability durability, ContentWriter content) throws IOException {
+        Path parent = target.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+
+        if (durability == ExportDurability.DIRECT) {
+            try (OutputStream output = Files.newOutputStream(target)) {
+                content.writeTo(output);
+            }
+            return;
+        }
+
+        boolean sync = durability == ExportDurability.DURABLE;
+        Path temp = target.resolveSibling(
+                "." + target.getFileName() + "." + Long.toHexString(ThreadLocalRandom.current().nextLong()) + ".tmp");
+        try {
+            try (FileOutputStream file = new FileOutputStream(temp.toFile())) {
+                content.writeTo(new UnclosableOutputStream(file));
+                file.flush();
+                if (sync) {
+                    file.getChannel().force(true);
+                }
+            }
+
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+
+        if (sync && parent != null) {
+            syncDirectory(parent);
+        }
+    }
+
+    /**
+     * Flush a directory entry to disk so a rename survives power loss.
+     * Not supported on every platform (e.g. Windows), where it is skipped.
+     */
+    private static void syncDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Directory sync not supported here; the file itself is already on disk
+        }
+    }
+
+    /**
+     * Lets adapters close their writers without closing the file before it
+     * has been forced to disk.
+     */
+    private static class UnclosableOutputStream extends FilterOutputStream {
+        UnclosableOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.jminiapp.core.utils;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * InputStream that ends after a fixed number of bytes of another stream.
+ *
+ * <p>Used to look at the start of a file without reading all of it;
+ * {@link #isLimitReached()} tells a real end of input from the cut-off.</p>
+ */
+public class BoundedInputStream extends FilterInputStream {
+
+    private long remaining;
+    private boolean limitReached;
+
+    /**
+     * Limit a stream.
+     *
+     * @param input the stream to read from
+     * @param limit the maximum number of bytes to return
+     */
+    public BoundedInputStream(InputStream input, long limit) {
+        super(input);
+        this.remaining = Math.max(0, limit);
+    }
+
+    /**
+     * Check whether reading stopped because of the limit.
+     *
+     * @return true if the limit was reached before the end of the underlying stream
+     */
+    public boolean isLimitReached() {
+        return limitReached;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (remaining == 0) {
+            limitReached = true;
+            return -1;
+        }
+        int b = in.read();
+        if (b >= 0) {
+            remaining--;
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (remaining == 0) {
+            limitReached = true;
+            return -1;
+        }
+        int read = in.read(b, off, (int) Math.min(len, remaining));
+        if (read > 0) {
+            remaining -= read;
+        }
+        return read;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = in.skip(Math.min(n, remaining));
+        remaining -= skipped;
+        return skipped;
+    }
+
+    @Override
+    public int available() throws IOException {
+        return (int) Math.min(in.available(), remaining);
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+}
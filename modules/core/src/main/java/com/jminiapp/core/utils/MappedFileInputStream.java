@@ -0,0 +1,124 @@
+package com.jminiapp.core.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * InputStream over a memory-mapped file.
+ *
+ * <p>The file is mapped read-only in regions of at most {@value #REGION_SIZE}
+ * bytes (a single mapping cannot exceed 2 GB), and reads copy straight out
+ * of the mapping without going through read system calls.</p>
+ *
+ * <p>Mappings are released by the garbage collector once the stream is no
+ * longer referenced; closing the stream closes the underlying channel.</p>
+ */
+public class MappedFileInputStream extends InputStream {
+
+    private static final long REGION_SIZE = 1L << 30;
+
+    private final FileChannel channel;
+    private final long end;
+    private long regionStart;
+    private MappedByteBuffer region;
+
+    /**
+     * Map a file for reading.
+     *
+     * @param file the file to read
+     * @throws IOException if the file cannot be opened or mapped
+     */
+    public MappedFileInputStream(Path file) throws IOException {
+        this(file, 0, Long.MAX_VALUE);
+    }
+
+    /**
+     * Map a byte range of a file for reading.
+     *
+     * @param file the file to read
+     * @param offset the position of the first byte to read
+     * @param length the maximum number of bytes to read
+     * @throws IOException if the file cannot be opened or mapped
+     */
+    public MappedFileInputStream(Path file, long offset, long length) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            long start = Math.min(Math.max(0, offset), size);
+            this.end = start + Math.min(length, size - start);
+            mapRegion(start);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!ensureRemaining()) {
+            return -1;
+        }
+        return region.get() & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!ensureRemaining()) {
+            return -1;
+        }
+        int count = Math.min(len, region.remaining());
+        region.get(b, off, count);
+        return count;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long position = regionStart + region.position();
+        long target = Math.min(end, position + Math.max(0, n));
+        if (target >= regionStart && target <= regionStart + region.limit()) {
+            region.position((int) (target - regionStart));
+        } else {
+            mapRegion(target);
+        }
+        return target - position;
+    }
+
+    @Override
+    public int available() {
+        return region.remaining();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Make sure the current region has unread bytes, mapping the next one if needed.
+     *
+     * @return false at end of file
+     */
+    private boolean ensureRemaining() throws IOException {
+        if (region.hasRemaining()) {
+            return true;
+        }
+        long next = regionStart + region.limit();
+        if (next >= end) {
+            return false;
+        }
+        mapRegion(next);
+        return true;
+    }
+
+    private void mapRegion(long start) throws IOException {
+        regionStart = start;
+        region = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(REGION_SIZE, end - start));
+    }
+}